@@ -1,12 +1,29 @@
 package BinaryList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.List;
 import java.util.AbstractList;
 import java.util.ListIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 
 /**
  * An implementation of List<Boolean> by using binary integer.
@@ -14,7 +31,10 @@ import java.util.ListIterator;
  * 
  * Some javadoc is derived from Java's List/ArrayList implementation.
  */
-public class BinaryList extends AbstractList<Boolean> {
+public class BinaryList extends AbstractList<Boolean> implements Externalizable {
+    // The streamed form is stable across versions
+    private static final long serialVersionUID = 1L;
+
     // Integer value that stores the list of bits in binary.
     int list;
     // Number of elements in the list.
@@ -68,13 +88,21 @@ public class BinaryList extends AbstractList<Boolean> {
      * @param c
      */
     public BinaryList(Collection<? extends Boolean> c) {
-        // TODO
-        throw new UnsupportedOperationException();
+        this();
+        addAll(c);
     }
 
     public int value() {
         //return list;
-        return list & ((1 << size) - 1);
+        return list & mask();
+    }
+
+    /**
+     * Returns a mask of the bits within {@code size}.
+     * 1 << 32 wraps around, so a full list is masked by -1.
+     */
+    int mask() {
+        return size >= MAX_SIZE ? -1 : (1 << size) - 1;
     }
 
     public int size() {
@@ -92,6 +120,16 @@ public class BinaryList extends AbstractList<Boolean> {
      * @return {@code true} (as specified by {@link Collection#add})
      */
     public boolean add(Boolean e) {
+        addBit(e);
+        return true;
+    }
+
+    /**
+     * Appends the specified boolean to the end of this list, without boxing.
+     * @param e boolean to be appended to this list
+     * @throws IndexOutOfBoundsException if the list is full
+     */
+    public void addBit(boolean e) {
         if (isFull()) throw new IndexOutOfBoundsException("BinaryList overflow");
 
         if (e)
@@ -100,7 +138,6 @@ public class BinaryList extends AbstractList<Boolean> {
             list &= ~(1 << size);
         
         size++;
-        return true;
     }
 
     /**
@@ -114,10 +151,19 @@ public class BinaryList extends AbstractList<Boolean> {
      *         ({@code index < 0 || index > size()})
      */
     public void add(int index, Boolean element) {
+        addBit(index, element);
+    }
+
+    /**
+     * Inserts the specified boolean at the specified position in this
+     * list, without boxing.
+     * @see BinaryList#add(int, Boolean)
+     */
+    public void addBit(int index, boolean element) {
         if (index < 0 || index > size) throw new IndexOutOfBoundsException();
         if (isFull()) throw new IndexOutOfBoundsException("BinaryList overflow");
         if (index == size) {
-            add(element);
+            addBit(element);
             return;
         }
 
@@ -135,31 +181,80 @@ public class BinaryList extends AbstractList<Boolean> {
     }
 
     /**
-     * Calls add method with int converted to boolean. Recursively calls add(Boolean).
+     * Calls addBit method with int converted to boolean.
      * @param e 0 or 1
      * @throws IllegalArgumentException if e is not 0 or 1
-     * @see BinaryList#add(Boolean)
+     * @see BinaryList#addBit(boolean)
      */
     public boolean add(int e) {
         if (e != 0 && e != 1)
             throw new IllegalArgumentException();
 
-        add(e == 1);
+        addBit(e == 1);
         return true;
     }
 
     /**
-     * Calls add method with int converted to boolean. Recursively calls add(int, Boolean).
+     * Calls addBit method with int converted to boolean.
      * @param e 0 or 1
      * @throws IllegalArgumentException if e is not 0 or 1
-     * @see BinaryList#add(int, Boolean)
+     * @see BinaryList#addBit(int, boolean)
      */
     public void add(int index, int e) {
         if (e != 0 && e != 1)
             throw new IllegalArgumentException();
 
-        add(index, e == 1);
-        return;
+        addBit(index, e == 1);
+    }
+
+    /**
+     * Appends all of the booleans in the specified collection, packed into
+     * one int before being stored.
+     * @throws IndexOutOfBoundsException if the list would exceed {@link #MAX_SIZE}
+     */
+    @Override
+    public boolean addAll(Collection<? extends Boolean> c) {
+        return addAll(size, c);
+    }
+
+    /**
+     * Inserts all of the booleans in the specified collection at the specified
+     * position, packed into one int before being stored.
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         ({@code index < 0 || index > size()}), or if the list would exceed {@link #MAX_SIZE}
+     */
+    @Override
+    public boolean addAll(int index, Collection<? extends Boolean> c) {
+        if (index < 0 || index > size) throw new IndexOutOfBoundsException();
+        int n = c.size();
+        if (n == 0)
+            return false;
+        if (size + n > MAX_SIZE) throw new IndexOutOfBoundsException("BinaryList overflow");
+
+        int packed = pack(c);
+        int maskR = (1 << index) - 1;
+        int maskL = ~maskR;
+
+        list = (list & mask() & maskL) << n | packed << index | (list & maskR);
+        size += n;
+        return true;
+    }
+
+    /**
+     * Packs {@code c} into the low bits of a int, first element at bit 0.
+     */
+    static int pack(Collection<? extends Boolean> c) {
+        if (c instanceof BinaryList)
+            return ((BinaryList) c).value();
+
+        int packed = 0;
+        int i = 0;
+        for (boolean e : c) {
+            if (e)
+                packed |= 1 << i;
+            i++;
+        }
+        return packed;
     }
     
     /**
@@ -184,7 +279,7 @@ public class BinaryList extends AbstractList<Boolean> {
         if (index < 0 || index >= size) throw new IndexOutOfBoundsException();
 
         // Removed bit
-        boolean p = get(index);
+        boolean p = getBit(index);
         
         int maskR = (1 << index) - 1;
         int maskL = ~maskR - (1 << index);
@@ -197,16 +292,35 @@ public class BinaryList extends AbstractList<Boolean> {
     }
     
     public Boolean get(int index) {
+        return getBit(index);
+    }
+
+    /**
+     * Returns the bit at the specified position, without boxing.
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         ({@code index < 0 || index >= size()})
+     */
+    public boolean getBit(int index) {
         if (index < 0 || index >= size) throw new IndexOutOfBoundsException();
 
         return (list & (1 << index)) != 0;
     }
     
     public Boolean set(int index, Boolean element) {
+        return setBit(index, element);
+    }
+
+    /**
+     * Replaces the bit at the specified position, without boxing.
+     * @return the bit previously at the specified position
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         ({@code index < 0 || index >= size()})
+     */
+    public boolean setBit(int index, boolean element) {
         if (index < 0 || index >= size) throw new IndexOutOfBoundsException();
         
         // Replaced bit
-        boolean p = get(index);
+        boolean p = getBit(index);
         
         if (p != element)
             list ^= (1 << index);
@@ -215,34 +329,248 @@ public class BinaryList extends AbstractList<Boolean> {
     }
 
     /**
-     * Calls set method with int converted to boolean.
+     * Inverts the bit at the specified position.
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         ({@code index < 0 || index >= size()})
+     */
+    public void flip(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException();
+
+        list ^= (1 << index);
+    }
+
+    /**
+     * Calls setBit method with int converted to boolean.
      * @param e 0 or 1
      * @throws IllegalArgumentException if e is not 0 or 1
-     * @see BinaryList#set(int, Boolean)
+     * @see BinaryList#setBit(int, boolean)
      */
     public Boolean set(int index, int e) {
         if (e != 0 && e != 1)
             throw new IllegalArgumentException();
 
-        return set(index, e == 1);
+        return setBit(index, e == 1);
     }
 
     /**
      * Returns new instance with bits reversed.
      */
     public BinaryList reversed() {
-        int copy = list;
-        int r = 0;
-        
-        for (int i = 0; i < size; i++) {
-            r <<= 1;
-            if ((copy & 1) != 0)
-                r |= 1;
-            
-            copy >>>= 1;
-        }
+        if (size == 0)
+            return new BinaryList(0, 0);
+        // Reverse all 32 bits, then drop the ones that were beyond size
+        return new BinaryList(Integer.reverse(value()) >>> (MAX_SIZE - size), size);
+    }
+
+    // Bulk boolean algebra
+    // Each operation is a single int operation. Bits of {@code other} beyond its
+    // size count as 0, and bits beyond this list's size are ignored, so the
+    // size of this list never changes.
+
+    /**
+     * Performs a logical AND of this list with {@code other}, in place.
+     */
+    public void and(BinaryList other) {
+        list &= other.value();
+    }
+
+    /**
+     * Performs a logical OR of this list with {@code other}, in place.
+     */
+    public void or(BinaryList other) {
+        list |= other.value() & mask();
+    }
+
+    /**
+     * Performs a logical XOR of this list with {@code other}, in place.
+     */
+    public void xor(BinaryList other) {
+        list ^= other.value() & mask();
+    }
+
+    /**
+     * Clears every bit of this list that is set in {@code other}, in place.
+     */
+    public void andNot(BinaryList other) {
+        list &= ~other.value();
+    }
+
+    /**
+     * Inverts every bit of this list, in place.
+     */
+    public void not() {
+        list ^= mask();
+    }
+
+    /**
+     * Returns a new list that is the logical AND of {@code a} and {@code b}, with the size of {@code a}.
+     */
+    public static BinaryList and(BinaryList a, BinaryList b) {
+        return new BinaryList(a.value() & b.value(), a.size);
+    }
+
+    /**
+     * Returns a new list that is the logical OR of {@code a} and {@code b}, with the size of {@code a}.
+     */
+    public static BinaryList or(BinaryList a, BinaryList b) {
+        return new BinaryList((a.value() | b.value()) & a.mask(), a.size);
+    }
+
+    /**
+     * Returns a new list that is the logical XOR of {@code a} and {@code b}, with the size of {@code a}.
+     */
+    public static BinaryList xor(BinaryList a, BinaryList b) {
+        return new BinaryList((a.value() ^ b.value()) & a.mask(), a.size);
+    }
+
+    /**
+     * Returns a new list with the bits of {@code a} that are not set in {@code b}, with the size of {@code a}.
+     */
+    public static BinaryList andNot(BinaryList a, BinaryList b) {
+        return new BinaryList(a.value() & ~b.value(), a.size);
+    }
+
+    /**
+     * Returns a new list with every bit of {@code a} inverted.
+     */
+    public static BinaryList not(BinaryList a) {
+        return new BinaryList(~a.value() & a.mask(), a.size);
+    }
+
+    // Range operations
+    // Each operates on [from, to) with a single int mask.
+
+    /**
+     * Returns a mask of the bits in [from, to).
+     * @throws IndexOutOfBoundsException if {@code from < 0 || from > to || to > size()}
+     */
+    int rangeMask(int from, int to) {
+        if (from < 0 || from > to || to > size) throw new IndexOutOfBoundsException();
+        if (from == to)
+            return 0;
+        return (-1 << from) & (-1 >>> (32 - to));
+    }
+
+    /**
+     * Sets every bit in [from, to) to {@code value}.
+     * @throws IndexOutOfBoundsException if {@code from < 0 || from > to || to > size()}
+     */
+    public void set(int from, int to, boolean value) {
+        int m = rangeMask(from, to);
+        if (value)
+            list |= m;
+        else
+            list &= ~m;
+    }
+
+    /**
+     * Clears every bit in [from, to).
+     * @throws IndexOutOfBoundsException if {@code from < 0 || from > to || to > size()}
+     */
+    public void clear(int from, int to) {
+        set(from, to, false);
+    }
 
-        return new BinaryList(r, size);
+    /**
+     * Inverts every bit in [from, to).
+     * @throws IndexOutOfBoundsException if {@code from < 0 || from > to || to > size()}
+     */
+    public void flip(int from, int to) {
+        list ^= rangeMask(from, to);
+    }
+
+    /**
+     * Returns the number of set bits in [from, to).
+     * @throws IndexOutOfBoundsException if {@code from < 0 || from > to || to > size()}
+     */
+    public int cardinality(int from, int to) {
+        return Integer.bitCount(list & rangeMask(from, to));
+    }
+
+    /**
+     * Returns the number of set bits.
+     */
+    public int cardinality() {
+        return Integer.bitCount(value());
+    }
+
+    // Scanning
+    // Each scan is a single int operation using Integer.numberOfTrailingZeros/numberOfLeadingZeros.
+
+    /**
+     * Returns the index of the first set bit at or after {@code from}, or -1 if there is none.
+     * @throws IndexOutOfBoundsException if {@code from < 0}
+     */
+    public int nextSetBit(int from) {
+        if (from < 0) throw new IndexOutOfBoundsException();
+        if (from >= size) return -1;
+
+        int w = value() & (-1 << from);
+        return w == 0 ? -1 : Integer.numberOfTrailingZeros(w);
+    }
+
+    /**
+     * Returns the index of the first clear bit at or after {@code from}, or -1 if there is none.
+     * @throws IndexOutOfBoundsException if {@code from < 0}
+     */
+    public int nextClearBit(int from) {
+        if (from < 0) throw new IndexOutOfBoundsException();
+        if (from >= size) return -1;
+
+        int w = ~list & mask() & (-1 << from);
+        return w == 0 ? -1 : Integer.numberOfTrailingZeros(w);
+    }
+
+    /**
+     * Returns the index of the last set bit at or before {@code from}, or -1 if there is none.
+     * @throws IndexOutOfBoundsException if {@code from < -1}
+     */
+    public int previousSetBit(int from) {
+        if (from < -1) throw new IndexOutOfBoundsException();
+        from = Math.min(from, size - 1);
+        if (from < 0) return -1;
+
+        int w = value() & (-1 >>> (31 - from));
+        return w == 0 ? -1 : 31 - Integer.numberOfLeadingZeros(w);
+    }
+
+    /**
+     * Returns the index of the last clear bit at or before {@code from}, or -1 if there is none.
+     * @throws IndexOutOfBoundsException if {@code from < -1}
+     */
+    public int previousClearBit(int from) {
+        if (from < -1) throw new IndexOutOfBoundsException();
+        from = Math.min(from, size - 1);
+        if (from < 0) return -1;
+
+        int w = ~list & (-1 >>> (31 - from));
+        return w == 0 ? -1 : 31 - Integer.numberOfLeadingZeros(w);
+    }
+
+    /**
+     * Returns a stream of the indices of set bits, in increasing order.
+     */
+    public IntStream setBits() {
+        return IntStream.iterate(nextSetBit(0), i -> i >= 0, i -> nextSetBit(i + 1));
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        if (!(o instanceof Boolean))
+            return -1;
+        return (Boolean) o ? nextSetBit(0) : nextClearBit(0);
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        if (!(o instanceof Boolean))
+            return -1;
+        return (Boolean) o ? previousSetBit(size - 1) : previousClearBit(size - 1);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
     }
 
     // Size manipulation
@@ -270,6 +598,73 @@ public class BinaryList extends AbstractList<Boolean> {
 //        // can use Integer methods?
 //    }
 
+    // Serialization
+    // A varint size, then the value in ceil(size/8) little-endian bytes.
+
+    /**
+     * Writes this list to {@code out}, as a varint size and ceil(size/8) bytes.
+     * @see #readFrom(InputStream)
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out, 16));
+        write(data);
+        data.flush();
+    }
+
+    /**
+     * Writes this list to {@code ch}, as a varint size and ceil(size/8) bytes.
+     * @see #readFrom(ReadableByteChannel)
+     */
+    public void writeTo(WritableByteChannel ch) throws IOException {
+        writeTo(Channels.newOutputStream(ch));
+    }
+
+    /**
+     * Reads a list written by {@link #writeTo(OutputStream)}, without reading past its last byte.
+     * @throws IOException if the stream ends early, or the size exceeds {@code MAX_SIZE}
+     */
+    public static BinaryList readFrom(InputStream in) throws IOException {
+        BinaryList r = new BinaryList();
+        r.read(new DataInputStream(in));
+        return r;
+    }
+
+    /**
+     * Reads a list written by {@link #writeTo(WritableByteChannel)}, without reading past its last byte.
+     * @throws IOException if the channel ends early, or the size exceeds {@code MAX_SIZE}
+     */
+    public static BinaryList readFrom(ReadableByteChannel ch) throws IOException {
+        return readFrom(Channels.newInputStream(ch));
+    }
+
+    void write(DataOutput out) throws IOException {
+        Varint.write(out, size);
+        int v = value();
+        for (int i = 0; i < size; i += 8)
+            out.writeByte(v >>> i);
+    }
+
+    void read(DataInput in) throws IOException {
+        long n = Varint.read(in);
+        if (n < 0 || n > MAX_SIZE) throw new IOException("BinaryList size out of range: " + n);
+
+        int v = 0;
+        for (int i = 0; i < n; i += 8)
+            v |= in.readUnsignedByte() << i;
+        list = v;
+        size = (int) n;
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        write(out);
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException {
+        read(in);
+    }
+
     /**
      * Note: Does not check for concurrent modification.
      */
@@ -336,34 +731,147 @@ public class BinaryList extends AbstractList<Boolean> {
         return new BinaryList(list, size);
     }
 
-    // @Override
-    // public Iterator<Boolean> iterator() {
-    //     return new BinaryIterator();
-    // }
-
-    // class BinaryIterator implements Iterator<Boolean> {
-    //     int copy;
-    //     int i;
-    //     BinaryIterator() {
-    //         copy = list;
-    //         i = size;
-    //     }
-
-    //     @Override
-    //     public boolean hasNext() {
-    //         return i != 0;
-    //     }
-
-    //     @Override
-    //     public Boolean next() {
-    //         if (i < 1) throw new NoSuchElementException();;
-
-    //         i--;
-    //         int n = copy % 2;
-    //         copy >>>= 1;
-    //         return n != 0;
-    //     }
-    // }
+    /**
+     * Never splits, since one int holds every bit.
+     */
+    @Override
+    public Spliterator<Boolean> spliterator() {
+        BooleanIterator it = iterator();
+        return new Spliterators.AbstractSpliterator<Boolean>(size, Spliterator.ORDERED | Spliterator.SIZED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super Boolean> action) {
+                if (!it.hasNext())
+                    return false;
+                action.accept(it.nextBoolean());
+                return true;
+            }
+
+            // AbstractSpliterator would copy batches of boxed bits into an array
+            @Override
+            public Spliterator<Boolean> trySplit() {
+                return null;
+            }
+        };
+    }
+
+    /**
+     * Returns the bits as a stream of 0s and 1s, without boxing.
+     */
+    public IntStream bitStream() {
+        int v = value();
+        return IntStream.range(0, size).map(i -> v >>> i & 1);
+    }
+
+    @Override
+    public BooleanIterator iterator() {
+        return new BinaryIterator(0);
+    }
+
+    @Override
+    public ListIterator<Boolean> listIterator(int index) {
+        if (index < 0 || index > size) throw new IndexOutOfBoundsException();
+
+        return new BinaryIteratorList(index);
+    }
+
+    /**
+     * Loads one int, then steps through its bits by shifting.
+     * Note: Does not check for concurrent modification.
+     */
+    class BinaryIterator implements BooleanIterator {
+        // tracking current index in list
+        int i;
+        // current int, shifted so that bit 0 is element i
+        int copy;
+        // index of last element returned, -1 if none
+        int lastRet = -1;
+
+        BinaryIterator(int index) {
+            i = index;
+            load();
+        }
+
+        void load() {
+            if (i < size)
+                copy = list >>> i;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return i < size;
+        }
+
+        @Override
+        public Boolean next() {
+            return nextBoolean();
+        }
+
+        @Override
+        public boolean nextBoolean() {
+            if (i >= size) throw new NoSuchElementException();
+
+            boolean b = (copy & 1) != 0;
+            lastRet = i++;
+            copy >>>= 1;
+            return b;
+        }
+    }
+
+    class BinaryIteratorList extends BinaryIterator implements ListIterator<Boolean> {
+        BinaryIteratorList(int index) {
+            super(index);
+        }
+
+        @Override
+        public boolean hasPrevious() {
+            return i > 0;
+        }
+
+        @Override
+        public Boolean previous() {
+            if (i <= 0) throw new NoSuchElementException();
+
+            lastRet = --i;
+            load();
+            return (copy & 1) != 0;
+        }
+
+        @Override
+        public int nextIndex() {
+            return i;
+        }
+
+        @Override
+        public int previousIndex() {
+            return i - 1;
+        }
+
+        @Override
+        public void remove() {
+            if (lastRet < 0) throw new IllegalStateException();
+
+            BinaryList.this.remove(lastRet);
+            if (lastRet < i)
+                i--;
+            lastRet = -1;
+            load();
+        }
+
+        @Override
+        public void set(Boolean e) {
+            if (lastRet < 0) throw new IllegalStateException();
+
+            setBit(lastRet, e);
+            load();
+        }
+
+        @Override
+        public void add(Boolean e) {
+            addBit(i++, e);
+            lastRet = -1;
+            load();
+        }
+    }
 
     @Override
     public boolean isEmpty() {
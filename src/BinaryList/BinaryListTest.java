@@ -6,7 +6,14 @@ import static org.junit.Assert.*;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.ListIterator;
 import java.util.Arrays;
+import java.util.stream.Collectors;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 
 @SuppressWarnings("unused")
 public class BinaryListTest {
@@ -108,6 +115,10 @@ public class BinaryListTest {
 
         BinaryList b2 = new BinaryList(27); // 1 1011
         assertEquals(b2, b2.reversed());
+
+        BinaryList b3 = new BinaryList(1, BinaryList.MAX_SIZE);
+        assertEquals(Integer.MIN_VALUE, b3.reversed().value());
+        assertEquals(0, new BinaryList().reversed().size());
     }
 
     @Test
@@ -129,4 +140,142 @@ public class BinaryListTest {
         
         // TODO: test for unsigned shifts
     }
+
+    @Test
+    public void testPrimitive() {
+        BinaryList b = new BinaryList();
+        b.addBit(true);
+        b.addBit(false);
+        b.addBit(0, false); // 010
+        assertEquals(2, b.value());
+        assertTrue(b.getBit(1));
+        assertTrue(b.setBit(1, false));
+        b.flip(2); // 100
+        assertEquals(4, b.value());
+
+        BooleanIterator it = b.iterator();
+        assertFalse(it.nextBoolean());
+        assertFalse(it.nextBoolean());
+        assertTrue(it.nextBoolean());
+        assertFalse(it.hasNext());
+    }
+
+    @Test
+    public void testListIterator() {
+        BinaryList b = new BinaryList(43); // 10 1011
+        ListIterator<Boolean> it = b.listIterator(2);
+        assertFalse(it.next());
+        assertTrue(it.next());
+        assertTrue(it.previous());
+        it.set(false); // 10 0011
+        assertEquals(35, b.value());
+        it.add(true); // 100 1011
+        assertEquals(75, b.value());
+        assertTrue(it.previous());
+        it.remove(); // 10 0011
+        assertEquals(35, b.value());
+        assertEquals(Arrays.asList(true, true, false, false, false, true), b);
+    }
+
+    @Test
+    public void testBulk() {
+        BinaryList a = new BinaryList("1100");
+        BinaryList b = new BinaryList("1010");
+        assertEquals(new BinaryList("1000"), BinaryList.and(a, b));
+        assertEquals(new BinaryList("1110"), BinaryList.or(a, b));
+        assertEquals(new BinaryList("0110"), BinaryList.xor(a, b));
+        assertEquals(new BinaryList("0100"), BinaryList.andNot(a, b));
+        assertEquals(new BinaryList("0011"), BinaryList.not(a));
+
+        // Shorter other counts as 0s, longer other is cut to size
+        a.or(new BinaryList("11111111"));
+        assertEquals(new BinaryList("1111"), a);
+        a.and(new BinaryList("11"));
+        assertEquals(new BinaryList("0011"), a);
+
+        BinaryList full = new BinaryList(0, BinaryList.MAX_SIZE);
+        full.not();
+        assertEquals(-1, full.value());
+    }
+
+    @Test
+    public void testScan() {
+        BinaryList b = new BinaryList("0110100");
+        assertEquals(2, b.nextSetBit(0));
+        assertEquals(4, b.nextSetBit(3));
+        assertEquals(-1, b.nextSetBit(6));
+        assertEquals(3, b.nextClearBit(2));
+        assertEquals(6, b.nextClearBit(6));
+        assertEquals(5, b.previousSetBit(6));
+        assertEquals(-1, b.previousSetBit(1));
+        assertEquals(3, b.previousClearBit(4));
+
+        assertEquals(2, b.indexOf(true));
+        assertEquals(0, b.indexOf(false));
+        assertEquals(5, b.lastIndexOf(true));
+        assertEquals(6, b.lastIndexOf(false));
+        assertFalse(new BinaryList(-1, 32).contains(false));
+        assertArrayEquals(new int[] {2, 4, 5}, b.setBits().toArray());
+    }
+
+    @Test
+    public void testAddAll() {
+        BinaryList b = new BinaryList(Arrays.asList(true, false, true, true)); // 1101
+        assertEquals(13, b.value());
+        b.addAll(new BinaryList("10")); // 10 1101
+        assertEquals(45, b.value());
+        b.addAll(1, Arrays.asList(false, false)); // 10 1100 01
+        assertEquals(177, b.value());
+        assertEquals(8, b.size());
+    }
+
+    @Test(expected=IndexOutOfBoundsException.class)
+    public void testAddAllOverflow() {
+        new BinaryList(0, 30).addAll(Arrays.asList(true, true, true));
+    }
+
+    @Test
+    public void testRange() {
+        BinaryList b = new BinaryList(0, 8);
+        b.set(2, 6, true); // 0011 1100
+        assertEquals(60, b.value());
+        b.clear(3, 5); // 0010 0100
+        assertEquals(36, b.value());
+        b.flip(0, 8); // 1101 1011
+        assertEquals(219, b.value());
+        assertEquals(3, b.cardinality(2, 7));
+        assertEquals(6, b.cardinality());
+
+        BinaryList full = new BinaryList(0, BinaryList.MAX_SIZE);
+        full.set(0, BinaryList.MAX_SIZE, true);
+        assertEquals(-1, full.value());
+    }
+
+    @Test
+    public void testStreaming() throws IOException, ClassNotFoundException {
+        BinaryList b = new BinaryList("1011001");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        b.writeTo(bytes);
+        assertEquals(2, bytes.size());
+        assertEquals(b, BinaryList.readFrom(new ByteArrayInputStream(bytes.toByteArray())));
+
+        BinaryList full = new BinaryList(-1, BinaryList.MAX_SIZE);
+        bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(full);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            assertEquals(full, in.readObject());
+        }
+    }
+
+    @Test
+    public void testBitStream() {
+        BinaryList b = new BinaryList("1011001");
+        assertArrayEquals(new int[] {1, 0, 0, 1, 1, 0, 1}, b.bitStream().toArray());
+        assertEquals(b.cardinality(), b.bitStream().parallel().sum());
+        assertNull(b.spliterator().trySplit());
+        assertEquals(b.cardinality(), b.stream().filter(e -> e).count());
+        assertEquals(Arrays.asList(true, false, false, true, true, false, true), b.stream().collect(Collectors.toList()));
+    }
 }
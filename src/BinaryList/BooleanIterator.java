@@ -0,0 +1,53 @@
+package BinaryList;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.function.Consumer;
+
+/**
+ * An Iterator specialized for {@code boolean} values, in the style of
+ * {@link PrimitiveIterator.OfInt}. Use {@link #nextBoolean()} to avoid boxing.
+ */
+public interface BooleanIterator extends PrimitiveIterator<Boolean, BooleanIterator.BooleanConsumer> {
+
+    /**
+     * Represents an operation that accepts a single {@code boolean} argument.
+     */
+    @FunctionalInterface
+    interface BooleanConsumer {
+        void accept(boolean value);
+    }
+
+    /**
+     * Returns the next {@code boolean} element in the iteration.
+     * @throws java.util.NoSuchElementException if the iteration has no more elements
+     */
+    boolean nextBoolean();
+
+    /**
+     * Boxes the result of {@link #nextBoolean()}.
+     */
+    @Override
+    default Boolean next() {
+        return nextBoolean();
+    }
+
+    @Override
+    default void forEachRemaining(BooleanConsumer action) {
+        Objects.requireNonNull(action);
+        while (hasNext())
+            action.accept(nextBoolean());
+    }
+
+    /**
+     * Unboxed if {@code action} is a {@link BooleanConsumer}, as in PrimitiveIterator.OfInt.
+     */
+    @Override
+    default void forEachRemaining(Consumer<? super Boolean> action) {
+        if (action instanceof BooleanConsumer) {
+            forEachRemaining((BooleanConsumer) action);
+        } else {
+            Objects.requireNonNull(action);
+            forEachRemaining((BooleanConsumer) action::accept);
+        }
+    }
+}
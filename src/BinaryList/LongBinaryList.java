@@ -0,0 +1,881 @@
+package BinaryList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.AbstractList;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * An implementation of List<Boolean> by using binary long.
+ * Elements are stored at 2^n.
+ * Same as {@link BinaryList}, but holds up to 64 booleans.
+ *
+ * Some javadoc is derived from Java's List/ArrayList implementation.
+ */
+public class LongBinaryList extends AbstractList<Boolean> implements Externalizable {
+    // The streamed form is stable across versions
+    private static final long serialVersionUID = 1L;
+
+    // Long value that stores the list of bits in binary.
+    long list;
+    // Number of elements in the list.
+    int size;
+    // Max that size should be, that is the bit-length of long
+    public static final int MAX_SIZE = Long.BYTES * 8;
+
+    /**
+     * Construct with {@code list} and {@code size} set to 0.
+     */
+    public LongBinaryList() {
+        this(0L);
+    }
+
+    /**
+     * Construct with provided {@code list}, automatically calculates {@code size}.
+     * @param list initial value of the list
+     */
+    public LongBinaryList(long list) {
+        this(list, 0);
+
+        for (long copy = list; copy > 0; copy >>= 1)
+            size++;
+    }
+
+    /**
+     * Construct with provided {@code list} and {@code size}. Allows list to exceed provided size.
+     * @param list initial value of the list
+     * @param size number of bits to consider in list
+     */
+    public LongBinaryList(long list, int size) {
+        this.list = list;
+        this.size = size;
+    }
+
+    /**
+     * Construct by parsing a number from string. Only 0s and 1s are allowed.
+     * @throws NumberFormatException if {@code String} contains anything other than 0 or 1,
+     *         or is longer than {@link #MAX_SIZE}.
+     * @see Long#parseUnsignedLong(String, int)
+     */
+    public LongBinaryList(String list) {
+        if (!list.matches("[01]+"))
+            throw new NumberFormatException();
+
+        this.list = Long.parseUnsignedLong(list, 2);
+        this.size = list.length();
+    }
+
+    /**
+     * Collection constructor, as per specification of AbstractList
+     * @param c
+     * @throws IndexOutOfBoundsException if {@code c} has more than {@link #MAX_SIZE} elements
+     */
+    public LongBinaryList(Collection<? extends Boolean> c) {
+        this();
+        addAll(c);
+    }
+
+    public long value() {
+        return list & mask();
+    }
+
+    /**
+     * Returns a mask of the bits within {@code size}.
+     * 1L << 64 wraps around, so a full list is masked by -1.
+     */
+    long mask() {
+        return size >= MAX_SIZE ? -1L : (1L << size) - 1;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Can check if losing data
+    public boolean isFull() {
+        return size >= MAX_SIZE;
+    }
+
+    /**
+     * Appends the specified boolean to the end of this list.
+     * @param e boolean to be appended to this list
+     * @return {@code true} (as specified by {@link Collection#add})
+     */
+    public boolean add(Boolean e) {
+        addBit(e);
+        return true;
+    }
+
+    /**
+     * Appends the specified boolean to the end of this list, without boxing.
+     * @param e boolean to be appended to this list
+     * @throws IndexOutOfBoundsException if the list is full
+     */
+    public void addBit(boolean e) {
+        if (isFull()) throw new IndexOutOfBoundsException("LongBinaryList overflow");
+
+        if (e)
+            list |= (1L << size);
+        else
+            list &= ~(1L << size);
+
+        size++;
+    }
+
+    /**
+     * Inserts the specified boolean at the specified position in this
+     * list. Shifts the bit currently at that position (if any) and
+     * any subsequent bits to the left (adds one to their indices).
+     *
+     * @param index index at which the specified boolean is to be inserted
+     * @param element boolean to be inserted
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         ({@code index < 0 || index > size()})
+     */
+    public void add(int index, Boolean element) {
+        addBit(index, element);
+    }
+
+    /**
+     * Inserts the specified boolean at the specified position in this
+     * list, without boxing.
+     * @see LongBinaryList#add(int, Boolean)
+     */
+    public void addBit(int index, boolean element) {
+        if (index < 0 || index > size) throw new IndexOutOfBoundsException();
+        if (isFull()) throw new IndexOutOfBoundsException("LongBinaryList overflow");
+        if (index == size) {
+            addBit(element);
+            return;
+        }
+
+        long maskR = (1L << index) - 1;
+        long maskL = ~maskR;
+
+        list = (list & maskL) << 1 | (list & maskR);
+
+        if (element)
+            list |= 1L << index;
+        else
+            list &= ~(1L << index);
+
+        size++;
+    }
+
+    /**
+     * Calls addBit method with int converted to boolean.
+     * @param e 0 or 1
+     * @throws IllegalArgumentException if e is not 0 or 1
+     * @see LongBinaryList#addBit(boolean)
+     */
+    public boolean add(int e) {
+        if (e != 0 && e != 1)
+            throw new IllegalArgumentException();
+
+        addBit(e == 1);
+        return true;
+    }
+
+    /**
+     * Calls addBit method with int converted to boolean.
+     * @param e 0 or 1
+     * @throws IllegalArgumentException if e is not 0 or 1
+     * @see LongBinaryList#addBit(int, boolean)
+     */
+    public void add(int index, int e) {
+        if (e != 0 && e != 1)
+            throw new IllegalArgumentException();
+
+        addBit(index, e == 1);
+    }
+
+    /**
+     * Appends all of the booleans in the specified collection, packed into
+     * one long before being stored.
+     * @throws IndexOutOfBoundsException if the list would exceed {@link #MAX_SIZE}
+     */
+    @Override
+    public boolean addAll(Collection<? extends Boolean> c) {
+        return addAll(size, c);
+    }
+
+    /**
+     * Inserts all of the booleans in the specified collection at the specified
+     * position, packed into one long before being stored.
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         ({@code index < 0 || index > size()}), or if the list would exceed {@link #MAX_SIZE}
+     */
+    @Override
+    public boolean addAll(int index, Collection<? extends Boolean> c) {
+        if (index < 0 || index > size) throw new IndexOutOfBoundsException();
+        int n = c.size();
+        if (n == 0)
+            return false;
+        if (size + n > MAX_SIZE) throw new IndexOutOfBoundsException("LongBinaryList overflow");
+
+        long packed = pack(c);
+        long maskR = (1L << index) - 1;
+        long maskL = ~maskR;
+
+        list = (list & mask() & maskL) << n | packed << index | (list & maskR);
+        size += n;
+        return true;
+    }
+
+    /**
+     * Packs {@code c} into the low bits of a long, first element at bit 0.
+     */
+    static long pack(Collection<? extends Boolean> c) {
+        if (c instanceof LongBinaryList)
+            return ((LongBinaryList) c).value();
+
+        long packed = 0;
+        int i = 0;
+        for (boolean e : c) {
+            if (e)
+                packed |= 1L << i;
+            i++;
+        }
+        return packed;
+    }
+
+    /**
+     * Unsupported operation.
+     * @throws UnsupportedOperationException
+     */
+    public boolean remove(Object o) {
+        throw new UnsupportedOperationException("Unimplemented method 'remove'");
+    }
+
+    /**
+     * Removes the bit at the specified position in this list.
+     * Shifts any subsequent bits to the left (subtracts one from their
+     * indices).
+     *
+     * @param index the index of the bit to be removed
+     * @return the boolean that was removed from the list
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         ({@code index < 0 || index >= size()})
+     */
+    public Boolean remove(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException();
+
+        // Removed bit
+        boolean p = getBit(index);
+
+        long maskR = (1L << index) - 1;
+        long maskL = ~maskR - (1L << index);
+
+        list = (list & maskL) >>> 1 | (list & maskR);
+        size--;
+
+        return p;
+    }
+
+    public Boolean get(int index) {
+        return getBit(index);
+    }
+
+    /**
+     * Returns the bit at the specified position, without boxing.
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         ({@code index < 0 || index >= size()})
+     */
+    public boolean getBit(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException();
+
+        return (list & (1L << index)) != 0;
+    }
+
+    public Boolean set(int index, Boolean element) {
+        return setBit(index, element);
+    }
+
+    /**
+     * Replaces the bit at the specified position, without boxing.
+     * @return the bit previously at the specified position
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         ({@code index < 0 || index >= size()})
+     */
+    public boolean setBit(int index, boolean element) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException();
+
+        // Replaced bit
+        boolean p = getBit(index);
+
+        if (p != element)
+            list ^= (1L << index);
+
+        return p;
+    }
+
+    /**
+     * Inverts the bit at the specified position.
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         ({@code index < 0 || index >= size()})
+     */
+    public void flip(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException();
+
+        list ^= (1L << index);
+    }
+
+    /**
+     * Calls setBit method with int converted to boolean.
+     * @param e 0 or 1
+     * @throws IllegalArgumentException if e is not 0 or 1
+     * @see LongBinaryList#setBit(int, boolean)
+     */
+    public Boolean set(int index, int e) {
+        if (e != 0 && e != 1)
+            throw new IllegalArgumentException();
+
+        return setBit(index, e == 1);
+    }
+
+    /**
+     * Returns new instance with bits reversed.
+     */
+    public LongBinaryList reversed() {
+        if (size == 0)
+            return new LongBinaryList(0L, 0);
+        // Reverse all 64 bits, then drop the ones that were beyond size
+        return new LongBinaryList(Long.reverse(value()) >>> (MAX_SIZE - size), size);
+    }
+
+    // Bulk boolean algebra
+    // Each operation is a single long operation. Bits of {@code other} beyond its
+    // size count as 0, and bits beyond this list's size are ignored, so the
+    // size of this list never changes.
+
+    /**
+     * Performs a logical AND of this list with {@code other}, in place.
+     */
+    public void and(LongBinaryList other) {
+        list &= other.value();
+    }
+
+    /**
+     * Performs a logical OR of this list with {@code other}, in place.
+     */
+    public void or(LongBinaryList other) {
+        list |= other.value() & mask();
+    }
+
+    /**
+     * Performs a logical XOR of this list with {@code other}, in place.
+     */
+    public void xor(LongBinaryList other) {
+        list ^= other.value() & mask();
+    }
+
+    /**
+     * Clears every bit of this list that is set in {@code other}, in place.
+     */
+    public void andNot(LongBinaryList other) {
+        list &= ~other.value();
+    }
+
+    /**
+     * Inverts every bit of this list, in place.
+     */
+    public void not() {
+        list ^= mask();
+    }
+
+    /**
+     * Returns a new list that is the logical AND of {@code a} and {@code b}, with the size of {@code a}.
+     */
+    public static LongBinaryList and(LongBinaryList a, LongBinaryList b) {
+        return new LongBinaryList(a.value() & b.value(), a.size);
+    }
+
+    /**
+     * Returns a new list that is the logical OR of {@code a} and {@code b}, with the size of {@code a}.
+     */
+    public static LongBinaryList or(LongBinaryList a, LongBinaryList b) {
+        return new LongBinaryList((a.value() | b.value()) & a.mask(), a.size);
+    }
+
+    /**
+     * Returns a new list that is the logical XOR of {@code a} and {@code b}, with the size of {@code a}.
+     */
+    public static LongBinaryList xor(LongBinaryList a, LongBinaryList b) {
+        return new LongBinaryList((a.value() ^ b.value()) & a.mask(), a.size);
+    }
+
+    /**
+     * Returns a new list with the bits of {@code a} that are not set in {@code b}, with the size of {@code a}.
+     */
+    public static LongBinaryList andNot(LongBinaryList a, LongBinaryList b) {
+        return new LongBinaryList(a.value() & ~b.value(), a.size);
+    }
+
+    /**
+     * Returns a new list with every bit of {@code a} inverted.
+     */
+    public static LongBinaryList not(LongBinaryList a) {
+        return new LongBinaryList(~a.value() & a.mask(), a.size);
+    }
+
+    // Range operations
+    // Each operates on [from, to) with a single long mask.
+
+    /**
+     * Returns a mask of the bits in [from, to).
+     * @throws IndexOutOfBoundsException if {@code from < 0 || from > to || to > size()}
+     */
+    long rangeMask(int from, int to) {
+        if (from < 0 || from > to || to > size) throw new IndexOutOfBoundsException();
+        if (from == to)
+            return 0;
+        return (-1L << from) & (-1L >>> (64 - to));
+    }
+
+    /**
+     * Sets every bit in [from, to) to {@code value}.
+     * @throws IndexOutOfBoundsException if {@code from < 0 || from > to || to > size()}
+     */
+    public void set(int from, int to, boolean value) {
+        long m = rangeMask(from, to);
+        if (value)
+            list |= m;
+        else
+            list &= ~m;
+    }
+
+    /**
+     * Clears every bit in [from, to).
+     * @throws IndexOutOfBoundsException if {@code from < 0 || from > to || to > size()}
+     */
+    public void clear(int from, int to) {
+        set(from, to, false);
+    }
+
+    /**
+     * Inverts every bit in [from, to).
+     * @throws IndexOutOfBoundsException if {@code from < 0 || from > to || to > size()}
+     */
+    public void flip(int from, int to) {
+        list ^= rangeMask(from, to);
+    }
+
+    /**
+     * Returns the number of set bits in [from, to).
+     * @throws IndexOutOfBoundsException if {@code from < 0 || from > to || to > size()}
+     */
+    public int cardinality(int from, int to) {
+        return Long.bitCount(list & rangeMask(from, to));
+    }
+
+    /**
+     * Returns the number of set bits.
+     */
+    public int cardinality() {
+        return Long.bitCount(value());
+    }
+
+    // Scanning
+    // Each scan is a single long operation using Long.numberOfTrailingZeros/numberOfLeadingZeros.
+
+    /**
+     * Returns the index of the first set bit at or after {@code from}, or -1 if there is none.
+     * @throws IndexOutOfBoundsException if {@code from < 0}
+     */
+    public int nextSetBit(int from) {
+        if (from < 0) throw new IndexOutOfBoundsException();
+        if (from >= size) return -1;
+
+        long w = value() & (-1L << from);
+        return w == 0 ? -1 : Long.numberOfTrailingZeros(w);
+    }
+
+    /**
+     * Returns the index of the first clear bit at or after {@code from}, or -1 if there is none.
+     * @throws IndexOutOfBoundsException if {@code from < 0}
+     */
+    public int nextClearBit(int from) {
+        if (from < 0) throw new IndexOutOfBoundsException();
+        if (from >= size) return -1;
+
+        long w = ~list & mask() & (-1L << from);
+        return w == 0 ? -1 : Long.numberOfTrailingZeros(w);
+    }
+
+    /**
+     * Returns the index of the last set bit at or before {@code from}, or -1 if there is none.
+     * @throws IndexOutOfBoundsException if {@code from < -1}
+     */
+    public int previousSetBit(int from) {
+        if (from < -1) throw new IndexOutOfBoundsException();
+        from = Math.min(from, size - 1);
+        if (from < 0) return -1;
+
+        long w = value() & (-1L >>> (63 - from));
+        return w == 0 ? -1 : 63 - Long.numberOfLeadingZeros(w);
+    }
+
+    /**
+     * Returns the index of the last clear bit at or before {@code from}, or -1 if there is none.
+     * @throws IndexOutOfBoundsException if {@code from < -1}
+     */
+    public int previousClearBit(int from) {
+        if (from < -1) throw new IndexOutOfBoundsException();
+        from = Math.min(from, size - 1);
+        if (from < 0) return -1;
+
+        long w = ~list & (-1L >>> (63 - from));
+        return w == 0 ? -1 : 63 - Long.numberOfLeadingZeros(w);
+    }
+
+    /**
+     * Returns a stream of the indices of set bits, in increasing order.
+     */
+    public IntStream setBits() {
+        return IntStream.iterate(nextSetBit(0), i -> i >= 0, i -> nextSetBit(i + 1));
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        if (!(o instanceof Boolean))
+            return -1;
+        return (Boolean) o ? nextSetBit(0) : nextClearBit(0);
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        if (!(o instanceof Boolean))
+            return -1;
+        return (Boolean) o ? previousSetBit(size - 1) : previousClearBit(size - 1);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    // Size manipulation
+    // Increases size //(overwrites with 0)
+    public void pad_back(int n) {
+        size += n;
+    }
+    // Adds 0s to front
+    public void pad_front(int n) {
+        list <<= n;
+        size += n;
+    }
+    // Removes ends
+    public void trim_front(int n) {
+        list >>>= n;
+        size -= n;
+    }
+    // Note: does not clear bits
+    public void trim_back(int n) {
+        size -= n;
+    }
+
+    // Serialization
+    // A varint size, then the value in ceil(size/8) little-endian bytes.
+
+    /**
+     * Writes this list to {@code out}, as a varint size and ceil(size/8) bytes.
+     * @see #readFrom(InputStream)
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out, 16));
+        write(data);
+        data.flush();
+    }
+
+    /**
+     * Writes this list to {@code ch}, as a varint size and ceil(size/8) bytes.
+     * @see #readFrom(ReadableByteChannel)
+     */
+    public void writeTo(WritableByteChannel ch) throws IOException {
+        writeTo(Channels.newOutputStream(ch));
+    }
+
+    /**
+     * Reads a list written by {@link #writeTo(OutputStream)}, without reading past its last byte.
+     * @throws IOException if the stream ends early, or the size exceeds {@code MAX_SIZE}
+     */
+    public static LongBinaryList readFrom(InputStream in) throws IOException {
+        LongBinaryList r = new LongBinaryList();
+        r.read(new DataInputStream(in));
+        return r;
+    }
+
+    /**
+     * Reads a list written by {@link #writeTo(WritableByteChannel)}, without reading past its last byte.
+     * @throws IOException if the channel ends early, or the size exceeds {@code MAX_SIZE}
+     */
+    public static LongBinaryList readFrom(ReadableByteChannel ch) throws IOException {
+        return readFrom(Channels.newInputStream(ch));
+    }
+
+    void write(DataOutput out) throws IOException {
+        Varint.write(out, size);
+        long v = value();
+        for (int i = 0; i < size; i += 8)
+            out.writeByte((int) (v >>> i));
+    }
+
+    void read(DataInput in) throws IOException {
+        long n = Varint.read(in);
+        if (n < 0 || n > MAX_SIZE) throw new IOException("LongBinaryList size out of range: " + n);
+
+        long v = 0;
+        for (int i = 0; i < n; i += 8)
+            v |= (long) in.readUnsignedByte() << i;
+        list = v;
+        size = (int) n;
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        write(out);
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException {
+        read(in);
+    }
+
+    /**
+     * Note: Does not check for concurrent modification.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        // also checks for null
+        if (!(obj instanceof List))
+            return false;
+
+        if (obj.getClass() == LongBinaryList.class) {
+            LongBinaryList other = (LongBinaryList) obj;
+            return size == other.size() && value() == other.value();
+        } else {
+            return super.equals(obj);
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        int result = 1;
+        result = prime * result + size;
+        result = prime * result + Long.hashCode(value());
+        return result;
+    }
+
+    public Boolean[] toArray() {
+        Boolean[] array = new Boolean[size];
+
+        int i = 0;
+        for (boolean e : this)
+            array[i++] = e;
+
+        return array;
+    }
+
+    /**
+     * Copied from ArrayList.toArray(T[])
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T[] toArray(T[] a) {
+        Boolean[] elementData = toArray();
+
+        if (a.length < size)
+            // Make a new array of a's runtime type, but my contents:
+            return (T[]) Arrays.copyOf(elementData, size, a.getClass());
+        System.arraycopy(elementData, 0, a, 0, size);
+        if (a.length > size)
+            a[size] = null;
+        return a;
+    }
+
+    @Override
+    public String toString() {
+    	return String.format("%"+size()+"s", Long.toBinaryString(value()))
+                     .replace(' ', '0');
+    }
+
+    @Override
+    public LongBinaryList clone() {
+        return new LongBinaryList(list, size);
+    }
+
+    /**
+     * Never splits, since one long holds every bit.
+     */
+    @Override
+    public Spliterator<Boolean> spliterator() {
+        BooleanIterator it = iterator();
+        return new Spliterators.AbstractSpliterator<Boolean>(size, Spliterator.ORDERED | Spliterator.SIZED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super Boolean> action) {
+                if (!it.hasNext())
+                    return false;
+                action.accept(it.nextBoolean());
+                return true;
+            }
+
+            // AbstractSpliterator would copy batches of boxed bits into an array
+            @Override
+            public Spliterator<Boolean> trySplit() {
+                return null;
+            }
+        };
+    }
+
+    /**
+     * Returns the bits as a stream of 0s and 1s, without boxing.
+     */
+    public IntStream bitStream() {
+        long v = value();
+        return IntStream.range(0, size).map(i -> (int) (v >>> i) & 1);
+    }
+
+    @Override
+    public BooleanIterator iterator() {
+        return new LongBinaryIterator(0);
+    }
+
+    @Override
+    public ListIterator<Boolean> listIterator(int index) {
+        if (index < 0 || index > size) throw new IndexOutOfBoundsException();
+
+        return new LongBinaryIteratorList(index);
+    }
+
+    /**
+     * Loads one long, then steps through its bits by shifting.
+     * Note: Does not check for concurrent modification.
+     */
+    class LongBinaryIterator implements BooleanIterator {
+        // tracking current index in list
+        int i;
+        // current long, shifted so that bit 0 is element i
+        long copy;
+        // index of last element returned, -1 if none
+        int lastRet = -1;
+
+        LongBinaryIterator(int index) {
+            i = index;
+            load();
+        }
+
+        void load() {
+            if (i < size)
+                copy = list >>> i;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return i < size;
+        }
+
+        @Override
+        public Boolean next() {
+            return nextBoolean();
+        }
+
+        @Override
+        public boolean nextBoolean() {
+            if (i >= size) throw new NoSuchElementException();
+
+            boolean b = (copy & 1) != 0;
+            lastRet = i++;
+            copy >>>= 1;
+            return b;
+        }
+    }
+
+    class LongBinaryIteratorList extends LongBinaryIterator implements ListIterator<Boolean> {
+        LongBinaryIteratorList(int index) {
+            super(index);
+        }
+
+        @Override
+        public boolean hasPrevious() {
+            return i > 0;
+        }
+
+        @Override
+        public Boolean previous() {
+            if (i <= 0) throw new NoSuchElementException();
+
+            lastRet = --i;
+            load();
+            return (copy & 1) != 0;
+        }
+
+        @Override
+        public int nextIndex() {
+            return i;
+        }
+
+        @Override
+        public int previousIndex() {
+            return i - 1;
+        }
+
+        @Override
+        public void remove() {
+            if (lastRet < 0) throw new IllegalStateException();
+
+            LongBinaryList.this.remove(lastRet);
+            if (lastRet < i)
+                i--;
+            lastRet = -1;
+            load();
+        }
+
+        @Override
+        public void set(Boolean e) {
+            if (lastRet < 0) throw new IllegalStateException();
+
+            setBit(lastRet, e);
+            load();
+        }
+
+        @Override
+        public void add(Boolean e) {
+            addBit(i++, e);
+            lastRet = -1;
+            load();
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void clear() {
+        list = 0;
+        size = 0;
+    }
+}
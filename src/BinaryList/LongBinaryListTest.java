@@ -0,0 +1,102 @@
+package BinaryList;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+import java.util.Arrays;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+public class LongBinaryListTest {
+    @Test
+    public void testConstructor() {
+        assertEquals(0, new LongBinaryList().value());
+
+        LongBinaryList b = new LongBinaryList("011101");
+        assertEquals(29, b.value());
+
+        // Full 64 bits, highest bit set
+        LongBinaryList full = new LongBinaryList("1" + "0".repeat(63));
+        assertEquals(64, full.size());
+        assertEquals(Long.MIN_VALUE, full.value());
+    }
+
+    @Test
+    public void testAdd() {
+        LongBinaryList b = new LongBinaryList();
+        for (int i = 0; i < 64; i++)
+            b.add(i % 2 == 0);
+        assertTrue(b.isFull());
+        assertEquals(0x5555555555555555L, b.value());
+    }
+
+    @Test(expected=IndexOutOfBoundsException.class)
+    public void testOverflow() {
+        LongBinaryList b = new LongBinaryList(-1L, 64);
+        b.add(true);
+    }
+
+    @Test
+    public void testAddRemove() {
+        LongBinaryList b = new LongBinaryList(1L << 40, 41);
+        b.add(0, true);
+        assertEquals((1L << 41) | 1, b.value());
+        assertTrue(b.remove(0));
+        assertEquals(1L << 40, b.value());
+        assertEquals(41, b.size());
+    }
+
+    @Test
+    public void testReversed() {
+        LongBinaryList b1 = new LongBinaryList(31); // 1 1111
+        assertEquals(b1, b1.reversed());
+        b1.add(false); // 01 1111
+        assertEquals(62, b1.reversed().value());
+
+        LongBinaryList b2 = new LongBinaryList(1L, 64);
+        assertEquals(Long.MIN_VALUE, b2.reversed().value());
+    }
+
+    @Test
+    public void testEquals() {
+        LongBinaryList b1 = new LongBinaryList(5);
+        LongBinaryList b2 = new LongBinaryList(1, 2); b2.add(1);
+        assertEquals(b1, b2);
+
+        List<Boolean> l1 = Arrays.asList(true, false, true);
+        assertEquals(b1, l1);
+        assertEquals(l1, b1);
+        assertEquals(b1, new LongBinaryList(l1));
+    }
+
+    @Test
+    public void testPadTrim() {
+        LongBinaryList b = new LongBinaryList(3); // 11
+        b.pad_front(2); // 1100
+        assertEquals(12, b.value());
+        b.trim_front(1); // 110
+        assertEquals(6, b.value());
+        b.trim_back(1); // 10
+        assertEquals(2, b.value());
+    }
+
+    @Test
+    public void testStreaming() throws IOException {
+        LongBinaryList b = new LongBinaryList(-1L, LongBinaryList.MAX_SIZE);
+        b.setBit(40, false);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        b.writeTo(bytes);
+        assertEquals(9, bytes.size());
+        assertEquals(b, LongBinaryList.readFrom(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+
+    @Test
+    public void testBitStream() {
+        LongBinaryList b = new LongBinaryList(-1L, LongBinaryList.MAX_SIZE);
+        b.setBit(63, false);
+        assertEquals(63, b.bitStream().parallel().sum());
+        assertEquals(0, b.bitStream().skip(63).findFirst().getAsInt());
+    }
+}
@@ -0,0 +1,40 @@
+package BinaryList;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Unsigned LEB128 varints, as used by the streaming formats of the lists:
+ * 7 bits per byte, low bits first, with the top bit set on every byte but the last.
+ * Sizes under 128 cost one byte.
+ */
+public final class Varint {
+    private Varint() {
+    }
+
+    /**
+     * Writes {@code value}, treated as unsigned.
+     */
+    public static void write(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    /**
+     * Reads a value written by {@link #write(DataOutput, long)}.
+     * @throws IOException if the varint is longer than 10 bytes
+     */
+    public static long read(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+                return value;
+        }
+        throw new IOException("Malformed varint");
+    }
+}
@@ -1,27 +1,65 @@
 package BinaryListPlus;
 import BinaryList.BinaryList;
+import BinaryList.BooleanIterator;
+import BinaryList.LongBinaryList;
+import BinaryList.Varint;
 
+import java.util.AbstractList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.NoSuchElementException;
-import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.math.BigInteger;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
 
 /**
  * This data structure expands the storage capacity of a BinaryList beyond 32/max bits
- * by storing ints inside a List.
- * This should theoretically allow it to hold unlimited bits.
+ * by storing longs inside a growable primitive array.
+ * Element {@code i} is stored at bit {@code i % MAX_SIZE} of word {@code i / MAX_SIZE}.
+ * Bits at or beyond {@code size} are always kept clear.
  */
-public class BLP implements List<Boolean> {
-    // Integer value that stores the list of bits in binary.
-    List<Integer> list;
+public class BLP implements List<Boolean>, Externalizable {
+    // The streamed form is stable across versions
+    private static final long serialVersionUID = 1L;
+
+    // Words that store the list of bits in binary.
+    long[] words;
     // Number of elements in the list.
     int size;
-    // Max size for BinaryList
-    public static final int MAX_SIZE = Integer.BYTES * 8;
+    // Number of times the bits or size have changed, for invalidating rankIndex.
+    // Every mutator must increment it.
+    int modCount;
+    // Rank/select index, built on demand by rank(int) and select(int)
+    RankSelect rankIndex;
+    // Max bits stored in each word
+    public static final int MAX_SIZE = Long.BYTES * 8;
 
     /**
      * Construct with {@code list} and {@code size} set to 0.
@@ -35,10 +73,8 @@ public class BLP implements List<Boolean> {
      * @param list initial value of the list
      */
     public BLP(int list) {
-        this(list, 0);
-
-        for (int copy = list; copy > 0; copy >>= 1)
-            size++;
+        // Negative values have no positive bit-length, as in BinaryList
+        this(list, Integer.SIZE - Integer.numberOfLeadingZeros(Math.max(list, 0)));
     }
 
     /**
@@ -47,21 +83,52 @@ public class BLP implements List<Boolean> {
      * @param size number of bits to consider in list
      */
     public BLP(int list, int size) {
-        this.list = new ArrayList<Integer>();
-        this.list.add(list);
-        this.size = size;
+        this(new long[Math.max(1, wordCount(size))], size);
+        if (size > 0) {
+            words[0] = list & 0xFFFFFFFFL;
+            clearUnused();
+        }
     }
 
     /**
      * For cloning
-     * @param l list to be adopted
+     * @param words words to be adopted
      * @param size
      */
-    BLP(List<Integer> l, int size) {
-        this.list = l;
+    BLP(long[] words, int size) {
+        this.words = words;
         this.size = size;
     }
 
+    /**
+     * Collection constructor, as per specification of List
+     * @param c
+     * @see BLP#addAll(Collection)
+     */
+    public BLP(Collection<? extends Boolean> c) {
+        this(0, 0);
+        addAll(c);
+    }
+
+    /**
+     * Construct from an array of booleans, 64 at a time.
+     * @param bits initial elements of the list
+     */
+    public BLP(boolean[] bits) {
+        this(0, 0);
+        addAll(bits);
+    }
+
+    /**
+     * Construct from the first {@code size} bits of a BitSet, which shares the word layout of BLP.
+     * @param bits initial elements of the list
+     * @param size number of bits to take from {@code bits}
+     */
+    public BLP(BitSet bits, int size) {
+        this(0, 0);
+        addAll(bits, size);
+    }
+
     /**
      * Construct by parsing a number from string. Only 0s and 1s are allowed.
      * @throws NumberFormatException if {@code String} contains anything other than 0 or 1.
@@ -71,22 +138,132 @@ public class BLP implements List<Boolean> {
         if (!list.matches("[01]+"))
             throw new NumberFormatException();
 
-        this.list = new ArrayList<Integer>();
-        this.list.add(Integer.parseInt(list, 2));
         this.size = list.length();
+        this.words = new long[Math.max(1, wordCount(size))];
+        for (int i = 0; i < size; i++)
+            if (list.charAt(size - 1 - i) == '1')
+                words[i >>> 6] |= 1L << i;
     }
 
     public BigInteger value() {
-        BigInteger val = new BigInteger("0");
-        for (int e : list)
-            val = val.add(new BigInteger(""+e));
-        return val;
+        int n = wordCount(size);
+        // Big-endian with a leading zero byte so the result is never negative
+        byte[] bytes = new byte[n * Long.BYTES + 1];
+        for (int i = 0; i < n; i++) {
+            long w = words[i];
+            for (int b = 0; b < Long.BYTES; b++)
+                bytes[bytes.length - 1 - i * Long.BYTES - b] = (byte) (w >>> (b * 8));
+        }
+        return new BigInteger(bytes);
     }
 
     public int size() {
         return size;
     }
 
+    /**
+     * Number of words needed to hold {@code bits} bits.
+     */
+    static int wordCount(int bits) {
+        return (int) (((long) bits + MAX_SIZE - 1) >>> 6);
+    }
+
+    /**
+     * Grows {@code words}, if necessary, to hold at least {@code bits} bits.
+     * Grows by half of the current length, as ArrayList does.
+     */
+    void ensureCapacity(int bits) {
+        int needed = wordCount(bits);
+        if (needed > words.length)
+            words = Arrays.copyOf(words, Math.max(needed, words.length + (words.length >> 1)));
+    }
+
+    /**
+     * Clears any bits at or beyond {@code size} in the last word in use.
+     */
+    void clearUnused() {
+        if ((size & (MAX_SIZE - 1)) != 0)
+            words[size >>> 6] &= -1L >>> -size;
+    }
+
+    /**
+     * Throws if the list cannot grow by {@code n} bits.
+     */
+    void checkGrowth(long n) {
+        if (size + n > Integer.MAX_VALUE) throw new IndexOutOfBoundsException("BLP overflow");
+    }
+
+    /**
+     * Appends the low {@code n} bits of {@code word}, {@code 0 <= n <= MAX_SIZE}.
+     * Bits of {@code word} at or beyond {@code n} must be clear.
+     * Capacity must already be ensured.
+     */
+    void appendBits(long word, int n) {
+        if (n == 0)
+            return;
+        int off = size & (MAX_SIZE - 1);
+        int w = size >>> 6;
+
+        words[w] |= word << off;
+        if (off != 0 && off + n > MAX_SIZE)
+            words[w + 1] = word >>> -off;
+
+        size += n;
+    }
+
+    /**
+     * Appends the first {@code n} bits of {@code src}, in the word layout of BLP.
+     * Missing words of {@code src} count as 0s.
+     */
+    void appendWords(long[] src, int n) {
+        checkGrowth(n);
+        ensureCapacity(size + n);
+
+        int full = n >>> 6;
+        int rem = n & (MAX_SIZE - 1);
+        if ((size & (MAX_SIZE - 1)) == 0) {
+            // Word aligned, so a plain copy
+            System.arraycopy(src, 0, words, size >>> 6, Math.min(full, src.length));
+            size += full * MAX_SIZE;
+        } else {
+            for (int i = 0; i < full && i < src.length; i++)
+                appendBits(src[i], MAX_SIZE);
+            size += Math.max(0, full - src.length) * MAX_SIZE;
+        }
+        if (full >= src.length)
+            size += rem;
+        else if (rem != 0)
+            appendBits(src[full] & (-1L >>> -rem), rem);
+    }
+
+    /**
+     * Returns the bits in [from, to) in the word layout of BLP.
+     */
+    long[] extractWords(int from, int to) {
+        int n = wordCount(to - from);
+        long[] r = new long[Math.max(1, n)];
+        int off = from & (MAX_SIZE - 1);
+        int w = from >>> 6;
+
+        for (int j = 0; j < n; j++) {
+            r[j] = words[w + j] >>> off;
+            if (off != 0 && w + j + 1 < words.length)
+                r[j] |= words[w + j + 1] << -off;
+        }
+        if (((to - from) & (MAX_SIZE - 1)) != 0)
+            r[n - 1] &= -1L >>> (from - to);
+        return r;
+    }
+
+    /**
+     * Drops every bit at or beyond {@code newSize}, {@code newSize <= size}.
+     */
+    void truncate(int newSize) {
+        Arrays.fill(words, wordCount(newSize), wordCount(size), 0L);
+        size = newSize;
+        clearUnused();
+    }
+
     // // Can check if losing data
     // public boolean isFull() {
     //     return size >= MAX_SIZE;
@@ -98,15 +275,25 @@ public class BLP implements List<Boolean> {
         * @return {@code true} (as specified by {@link Collection#add})
         */
     public boolean add(Boolean e) {
-        if (size % MAX_SIZE == 0)
-            list.add(0);
-        
-        list.getLast().add(e);
-        
-        size++;
+        addBit(e);
         return true;
     }
 
+    /**
+     * Appends the specified boolean to the end of this list, without boxing.
+     * @param e boolean to be appended to this list
+     */
+    public void addBit(boolean e) {
+        if (size == Integer.MAX_VALUE) throw new IndexOutOfBoundsException("BLP overflow");
+        ensureCapacity(size + 1);
+
+        if (e)
+            words[size >>> 6] |= 1L << size;
+
+        size++;
+        modCount++;
+    }
+
     /**
         * Inserts the specified boolean at the specified position in this
         * list. Shifts the bit currently at that position (if any) and
@@ -118,43 +305,65 @@ public class BLP implements List<Boolean> {
         *         ({@code index < 0 || index >= size()})
         */
     public void add(int index, Boolean element) {
+        addBit(index, element);
+    }
+
+    /**
+     * Inserts the specified boolean at the specified position in this
+     * list, without boxing.
+     * @see BLP#add(int, Boolean)
+     */
+    public void addBit(int index, boolean element) {
         if (index < 0 || index > size) throw new IndexOutOfBoundsException();
         if (index == size) {
-            add(element);
+            addBit(element);
             return;
         }
+        if (size == Integer.MAX_VALUE) throw new IndexOutOfBoundsException("BLP overflow");
+        ensureCapacity(size + 1);
+
+        // Carry the top bit of each word into the next, from the last word down
+        int w = index >>> 6;
+        for (int i = size >>> 6; i > w; i--)
+            words[i] = words[i] << 1 | words[i - 1] >>> 63;
+
+        long maskR = (1L << index) - 1;
+        long maskL = ~maskR;
+
+        words[w] = (words[w] & maskL) << 1 | (words[w] & maskR);
+
+        if (element)
+            words[w] |= 1L << index;
 
-        // TODO
-        
         size++;
+        modCount++;
     }
 
     /**
-        * Calls add method with int converted to boolean. Recursively calls add(Boolean).
+        * Calls addBit method with int converted to boolean.
         * @param e 0 or 1
         * @throws IllegalArgumentException if e is not 0 or 1
-        * @see BLP#add(Boolean)
+        * @see BLP#addBit(boolean)
         */
     public boolean add(int e) {
         if (e != 0 && e != 1)
             throw new IllegalArgumentException();
 
-        add(e == 1);
+        addBit(e == 1);
         return true;
     }
 
     /**
-        * Calls add method with int converted to boolean. Recursively calls add(int, Boolean).
+        * Calls addBit method with int converted to boolean.
         * @param e 0 or 1
         * @throws IllegalArgumentException if e is not 0 or 1
-        * @see BLP#add(int, Boolean)
+        * @see BLP#addBit(int, boolean)
         */
     public void add(int index, int e) {
         if (e != 0 && e != 1)
             throw new IllegalArgumentException();
 
-        add(index, e == 1);
-        return;
+        addBit(index, e == 1);
     }
     
     /**
@@ -178,58 +387,667 @@ public class BLP implements List<Boolean> {
     public Boolean remove(int index) {
         if (index < 0 || index >= size) throw new IndexOutOfBoundsException();
 
+        // Removed bit
+        boolean p = getBit(index);
+
+        int w = index >>> 6;
+        long maskR = (1L << index) - 1;
+        long maskL = ~maskR;
+
+        words[w] = (words[w] >>> 1) & maskL | (words[w] & maskR);
+
+        // Borrow the bottom bit of each following word
+        int last = (size - 1) >>> 6;
+        for (int i = w; i < last; i++) {
+            words[i] |= words[i + 1] << 63;
+            words[i + 1] >>>= 1;
+        }
+
         size--;
-        return list.get(index/MAX_SIZE).get(index%MAX_SIZE);
+        modCount++;
+        return p;
     }
     
     public Boolean get(int index) {
+        return getBit(index);
+    }
+
+    /**
+     * Returns the bit at the specified position, without boxing.
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         ({@code index < 0 || index >= size()})
+     */
+    public boolean getBit(int index) {
         if (index < 0 || index >= size) throw new IndexOutOfBoundsException();
 
-        return (list & (1 << index)) != 0;
+        return (words[index >>> 6] & (1L << index)) != 0;
     }
     
     public Boolean set(int index, Boolean element) {
+        return setBit(index, element);
+    }
+
+    /**
+     * Replaces the bit at the specified position, without boxing.
+     * @return the bit previously at the specified position
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         ({@code index < 0 || index >= size()})
+     */
+    public boolean setBit(int index, boolean element) {
         if (index < 0 || index >= size) throw new IndexOutOfBoundsException();
         
         // Replaced bit
-        boolean p = get(index);
+        boolean p = getBit(index);
         
-        if (p != element)
-            list ^= (1 << index);
+        if (p != element) {
+            words[index >>> 6] ^= (1L << index);
+            modCount++;
+        }
 
         return p;
     }
 
     /**
-        * Calls set method with int converted to boolean.
+     * Inverts the bit at the specified position.
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         ({@code index < 0 || index >= size()})
+     */
+    public void flip(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException();
+
+        words[index >>> 6] ^= (1L << index);
+        modCount++;
+    }
+
+    /**
+        * Calls setBit method with int converted to boolean.
         * @param e 0 or 1
         * @throws IllegalArgumentException if e is not 0 or 1
-        * @see BinaryList#set(int, Boolean)
+        * @see BLP#setBit(int, boolean)
         */
     public Boolean set(int index, int e) {
         if (e != 0 && e != 1)
             throw new IllegalArgumentException();
 
-        return set(index, e == 1);
+        return setBit(index, e == 1);
     }
 
     /**
         * Returns new instance with bits reversed.
         */
-    public BinaryList reversed() {
-        // TODO AAAHHhHHHH
-        int copy = list;
-        int r = 0;
-        
-        for (int i = 0; i < size; i++) {
-            r <<= 1;
-            if ((copy & 1) != 0)
-                r |= 1;
-            
-            copy >>>= 1;
+    public BLP reversed() {
+        int n = wordCount(size);
+        long[] r = new long[Math.max(1, n)];
+
+        // Reverse the order of the words and the bits within each word
+        for (int i = 0; i < n; i++)
+            r[i] = Long.reverse(words[n - 1 - i]);
+
+        // The unused bits of the last word are now at the start, shift them out
+        int shift = -size & (MAX_SIZE - 1);
+        if (shift != 0) {
+            for (int i = 0; i < n - 1; i++)
+                r[i] = r[i] >>> shift | r[i + 1] << (MAX_SIZE - shift);
+            r[n - 1] >>>= shift;
+        }
+
+        return new BLP(r, size);
+    }
+
+    /**
+     * Returns a view of this list in reverse order, without copying.
+     * Changes to either list are visible in the other.
+     */
+    public List<Boolean> reversedView() {
+        return new ReversedView();
+    }
+
+    class ReversedView extends AbstractList<Boolean> {
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Boolean get(int index) {
+            return getBit(size - 1 - index);
+        }
+
+        @Override
+        public Boolean set(int index, Boolean element) {
+            return setBit(size - 1 - index, element);
+        }
+
+        @Override
+        public void add(int index, Boolean element) {
+            if (index < 0 || index > size) throw new IndexOutOfBoundsException();
+
+            addBit(size - index, element);
+            modCount++;
+        }
+
+        @Override
+        public Boolean remove(int index) {
+            if (index < 0 || index >= size) throw new IndexOutOfBoundsException();
+
+            modCount++;
+            return BLP.this.remove(size - 1 - index);
+        }
+
+        @Override
+        public BooleanIterator iterator() {
+            return new ReversedIterator();
+        }
+    }
+
+    /**
+     * Iterates from the last bit to the first, one word at a time.
+     * Note: Does not check for concurrent modification.
+     */
+    class ReversedIterator implements BooleanIterator {
+        // tracking current index in list, counting down
+        int i = size - 1;
+        // current word, shifted so that bit 63 is element i
+        long copy;
+
+        ReversedIterator() {
+            load();
+        }
+
+        void load() {
+            if (i >= 0)
+                copy = words[i >>> 6] << ~i;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return i >= 0;
+        }
+
+        @Override
+        public boolean nextBoolean() {
+            if (i < 0) throw new NoSuchElementException();
+
+            boolean b = copy < 0;
+            if ((i-- & (MAX_SIZE - 1)) == 0)
+                load();
+            else
+                copy <<= 1;
+            return b;
+        }
+    }
+
+    // Bulk boolean algebra
+    // Each operation is a loop over words. Bits of {@code other} beyond its size
+    // count as 0, and bits beyond this list's size are ignored, so the size of
+    // this list never changes.
+
+    /**
+     * Performs a logical AND of this list with {@code other}, in place.
+     */
+    public void and(BLP other) {
+        modCount++;
+        int n = wordCount(size);
+        int common = Math.min(n, wordCount(other.size));
+        for (int i = 0; i < common; i++)
+            words[i] &= other.words[i];
+        Arrays.fill(words, common, n, 0L);
+    }
+
+    /**
+     * Performs a logical OR of this list with {@code other}, in place.
+     */
+    public void or(BLP other) {
+        modCount++;
+        int common = Math.min(wordCount(size), wordCount(other.size));
+        for (int i = 0; i < common; i++)
+            words[i] |= other.words[i];
+        clearUnused();
+    }
+
+    /**
+     * Performs a logical XOR of this list with {@code other}, in place.
+     */
+    public void xor(BLP other) {
+        modCount++;
+        int common = Math.min(wordCount(size), wordCount(other.size));
+        for (int i = 0; i < common; i++)
+            words[i] ^= other.words[i];
+        clearUnused();
+    }
+
+    /**
+     * Clears every bit of this list that is set in {@code other}, in place.
+     */
+    public void andNot(BLP other) {
+        modCount++;
+        int common = Math.min(wordCount(size), wordCount(other.size));
+        for (int i = 0; i < common; i++)
+            words[i] &= ~other.words[i];
+    }
+
+    /**
+     * Inverts every bit of this list, in place.
+     */
+    public void not() {
+        modCount++;
+        for (int i = 0, n = wordCount(size); i < n; i++)
+            words[i] = ~words[i];
+        clearUnused();
+    }
+
+    /**
+     * Returns a new list that is the logical AND of {@code a} and {@code b}, with the size of {@code a}.
+     */
+    public static BLP and(BLP a, BLP b) {
+        BLP r = a.clone();
+        r.and(b);
+        return r;
+    }
+
+    /**
+     * Returns a new list that is the logical OR of {@code a} and {@code b}, with the size of {@code a}.
+     */
+    public static BLP or(BLP a, BLP b) {
+        BLP r = a.clone();
+        r.or(b);
+        return r;
+    }
+
+    /**
+     * Returns a new list that is the logical XOR of {@code a} and {@code b}, with the size of {@code a}.
+     */
+    public static BLP xor(BLP a, BLP b) {
+        BLP r = a.clone();
+        r.xor(b);
+        return r;
+    }
+
+    /**
+     * Returns a new list with the bits of {@code a} that are not set in {@code b}, with the size of {@code a}.
+     */
+    public static BLP andNot(BLP a, BLP b) {
+        BLP r = a.clone();
+        r.andNot(b);
+        return r;
+    }
+
+    /**
+     * Returns a new list with every bit of {@code a} inverted.
+     */
+    public static BLP not(BLP a) {
+        BLP r = a.clone();
+        r.not();
+        return r;
+    }
+
+    /**
+     * Returns a view that runs cardinality, the bulk operations, contentEquals and
+     * nextSetBit in parallel, in the common ForkJoinPool.
+     */
+    public ParallelBLP parallel() {
+        return parallel(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Returns a view that runs cardinality, the bulk operations, contentEquals and
+     * nextSetBit in parallel, in {@code pool}.
+     */
+    public ParallelBLP parallel(ForkJoinPool pool) {
+        return new ParallelBLP(this, pool);
+    }
+
+    // Range operations
+    // Each operates on [from, to), masking the partial words at both ends
+    // and filling the whole words in between.
+
+    /**
+     * @throws IndexOutOfBoundsException if {@code from < 0 || from > to || to > size()}
+     */
+    void checkRange(int from, int to) {
+        if (from < 0 || from > to || to > size) throw new IndexOutOfBoundsException();
+    }
+
+    /**
+     * Sets every bit in [from, to) to {@code value}.
+     * @throws IndexOutOfBoundsException if {@code from < 0 || from > to || to > size()}
+     */
+    public void set(int from, int to, boolean value) {
+        checkRange(from, to);
+        if (from == to)
+            return;
+        modCount++;
+
+        int fw = from >>> 6;
+        int lw = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+
+        if (fw == lw) {
+            long m = firstMask & lastMask;
+            words[fw] = value ? words[fw] | m : words[fw] & ~m;
+            return;
+        }
+        words[fw] = value ? words[fw] | firstMask : words[fw] & ~firstMask;
+        Arrays.fill(words, fw + 1, lw, value ? -1L : 0L);
+        words[lw] = value ? words[lw] | lastMask : words[lw] & ~lastMask;
+    }
+
+    /**
+     * Clears every bit in [from, to).
+     * @throws IndexOutOfBoundsException if {@code from < 0 || from > to || to > size()}
+     */
+    public void clear(int from, int to) {
+        set(from, to, false);
+    }
+
+    /**
+     * Inverts every bit in [from, to).
+     * @throws IndexOutOfBoundsException if {@code from < 0 || from > to || to > size()}
+     */
+    public void flip(int from, int to) {
+        checkRange(from, to);
+        if (from == to)
+            return;
+        modCount++;
+
+        int fw = from >>> 6;
+        int lw = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+
+        if (fw == lw) {
+            words[fw] ^= firstMask & lastMask;
+            return;
+        }
+        words[fw] ^= firstMask;
+        for (int i = fw + 1; i < lw; i++)
+            words[i] = ~words[i];
+        words[lw] ^= lastMask;
+    }
+
+    /**
+     * Returns the number of set bits in [from, to).
+     * @throws IndexOutOfBoundsException if {@code from < 0 || from > to || to > size()}
+     */
+    public int cardinality(int from, int to) {
+        checkRange(from, to);
+        if (from == to)
+            return 0;
+
+        int fw = from >>> 6;
+        int lw = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+
+        if (fw == lw)
+            return Long.bitCount(words[fw] & firstMask & lastMask);
+
+        int count = Long.bitCount(words[fw] & firstMask);
+        for (int i = fw + 1; i < lw; i++)
+            count += Long.bitCount(words[i]);
+        return count + Long.bitCount(words[lw] & lastMask);
+    }
+
+    /**
+     * Returns the number of set bits.
+     */
+    public int cardinality() {
+        int count = 0;
+        for (int i = 0, n = wordCount(size); i < n; i++)
+            count += Long.bitCount(words[i]);
+        return count;
+    }
+
+    // Scanning
+    // Each scan skips a whole word at a time using Long.numberOfTrailingZeros/numberOfLeadingZeros.
+
+    /**
+     * Returns the index of the first set bit at or after {@code from}, or -1 if there is none.
+     * @throws IndexOutOfBoundsException if {@code from < 0}
+     */
+    public int nextSetBit(int from) {
+        if (from < 0) throw new IndexOutOfBoundsException();
+        if (from >= size) return -1;
+
+        int w = from >>> 6;
+        int n = wordCount(size);
+        long word = words[w] & (-1L << from);
+        while (word == 0) {
+            if (++w == n)
+                return -1;
+            word = words[w];
+        }
+        return w * MAX_SIZE + Long.numberOfTrailingZeros(word);
+    }
+
+    /**
+     * Returns the index of the first clear bit at or after {@code from}, or -1 if there is none.
+     * @throws IndexOutOfBoundsException if {@code from < 0}
+     */
+    public int nextClearBit(int from) {
+        if (from < 0) throw new IndexOutOfBoundsException();
+        if (from >= size) return -1;
+
+        int w = from >>> 6;
+        int n = wordCount(size);
+        long word = ~words[w] & (-1L << from);
+        while (word == 0) {
+            if (++w == n)
+                return -1;
+            word = ~words[w];
+        }
+        // Bits beyond size are clear, so check the result is within size
+        int i = w * MAX_SIZE + Long.numberOfTrailingZeros(word);
+        return i < size ? i : -1;
+    }
+
+    /**
+     * Returns the index of the last set bit at or before {@code from}, or -1 if there is none.
+     * @throws IndexOutOfBoundsException if {@code from < -1}
+     */
+    public int previousSetBit(int from) {
+        if (from < -1) throw new IndexOutOfBoundsException();
+        from = Math.min(from, size - 1);
+        if (from < 0) return -1;
+
+        int w = from >>> 6;
+        long word = words[w] & (-1L >>> ~from);
+        while (word == 0) {
+            if (w-- == 0)
+                return -1;
+            word = words[w];
+        }
+        return w * MAX_SIZE + (MAX_SIZE - 1) - Long.numberOfLeadingZeros(word);
+    }
+
+    /**
+     * Returns the index of the last clear bit at or before {@code from}, or -1 if there is none.
+     * @throws IndexOutOfBoundsException if {@code from < -1}
+     */
+    public int previousClearBit(int from) {
+        if (from < -1) throw new IndexOutOfBoundsException();
+        from = Math.min(from, size - 1);
+        if (from < 0) return -1;
+
+        int w = from >>> 6;
+        long word = ~words[w] & (-1L >>> ~from);
+        while (word == 0) {
+            if (w-- == 0)
+                return -1;
+            word = ~words[w];
+        }
+        return w * MAX_SIZE + (MAX_SIZE - 1) - Long.numberOfLeadingZeros(word);
+    }
+
+    /**
+     * Returns a stream of the indices of set bits, in increasing order.
+     */
+    public IntStream setBits() {
+        return IntStream.iterate(nextSetBit(0), i -> i >= 0, i -> nextSetBit(i + 1));
+    }
+
+    /**
+     * Returns the number of set bits before the specified position.
+     * Builds a rank/select index on first use, which is rebuilt after any modification.
+     * @param index position to count up to, exclusive
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         ({@code index < 0 || index > size()})
+     */
+    public int rank(int index) {
+        if (index < 0 || index > size) throw new IndexOutOfBoundsException();
+
+        return rankIndex().rank(index);
+    }
+
+    /**
+     * Returns the position of the set bit with rank {@code k}, that is the
+     * {@code (k+1)}-th set bit, or -1 if there are not that many set bits.
+     * Builds a rank/select index on first use, which is rebuilt after any modification.
+     */
+    public int select(int k) {
+        return rankIndex().select(k);
+    }
+
+    /**
+     * Returns the rank/select index, rebuilding it if this list has changed since.
+     */
+    RankSelect rankIndex() {
+        if (rankIndex == null || rankIndex.modCount != modCount)
+            rankIndex = new RankSelect(this);
+        return rankIndex;
+    }
+
+    // Persistence
+    // The file format is a 16 byte header and the raw little-endian words, see MappedBLP.
+
+    /**
+     * Maps the list stored at {@code path} into memory, without reading or parsing its words.
+     * With {@code READ_WRITE}, a missing or empty file becomes an empty list, and the
+     * list grows the file as needed. Call {@link MappedBLP#force()} for durability.
+     * With {@code PRIVATE}, edits never reach the file.
+     * @throws IOException if the file cannot be mapped, or is not a BLP file
+     */
+    public static MappedBLP map(Path path, FileChannel.MapMode mode) throws IOException {
+        return MappedBLP.open(path, mode);
+    }
+
+    /**
+     * Writes this list to {@code path} in the format read by {@link #map(Path, FileChannel.MapMode)},
+     * replacing any existing file.
+     * @throws IOException if the file cannot be written
+     */
+    public void store(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(MappedBLP.header(size));
+
+            // Words go out through a fixed-size buffer
+            ByteBuffer buffer = ByteBuffer.allocate(8192).order(ByteOrder.LITTLE_ENDIAN);
+            for (int i = 0, n = wordCount(size); i < n; i++) {
+                buffer.putLong(words[i]);
+                if (!buffer.hasRemaining() || i == n - 1) {
+                    buffer.flip();
+                    while (buffer.hasRemaining())
+                        channel.write(buffer);
+                    buffer.clear();
+                }
+            }
+        }
+    }
+
+    // Streaming
+    // A varint size, then the words in ceil(size/8) little-endian bytes, through a fixed-size buffer.
+    static final int STREAM_BUFFER = 8192;
+
+    /**
+     * Writes this list to {@code out}, as a varint size and ceil(size/8) bytes.
+     * @see #readFrom(InputStream)
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out, STREAM_BUFFER));
+        write(data);
+        data.flush();
+    }
+
+    /**
+     * Writes this list to {@code ch}, as a varint size and ceil(size/8) bytes.
+     * @see #readFrom(ReadableByteChannel)
+     */
+    public void writeTo(WritableByteChannel ch) throws IOException {
+        writeTo(Channels.newOutputStream(ch));
+    }
+
+    /**
+     * Reads a list written by {@link #writeTo(OutputStream)}, without reading past its last byte.
+     * @throws IOException if the stream ends early, or the size is out of range
+     */
+    public static BLP readFrom(InputStream in) throws IOException {
+        BLP r = new BLP();
+        r.read(new DataInputStream(in));
+        return r;
+    }
+
+    /**
+     * Reads a list written by {@link #writeTo(WritableByteChannel)}, without reading past its last byte.
+     * @throws IOException if the channel ends early, or the size is out of range
+     */
+    public static BLP readFrom(ReadableByteChannel ch) throws IOException {
+        return readFrom(Channels.newInputStream(ch));
+    }
+
+    void write(DataOutput out) throws IOException {
+        Varint.write(out, size);
+
+        byte[] buffer = new byte[STREAM_BUFFER];
+        ByteBuffer b = ByteBuffer.wrap(buffer).order(ByteOrder.LITTLE_ENDIAN);
+        int n = wordCount(size);
+        for (int i = 0; i < n; i++) {
+            b.putLong(words[i]);
+            if (i == n - 1) {
+                // Only the bytes in use of the last word
+                out.write(buffer, 0, b.position() - Long.BYTES + (((size - 1) & (MAX_SIZE - 1)) >>> 3) + 1);
+            } else if (!b.hasRemaining()) {
+                out.write(buffer, 0, b.position());
+                b.clear();
+            }
+        }
+    }
+
+    void read(DataInput in) throws IOException {
+        long n = Varint.read(in);
+        if (n < 0 || n > Integer.MAX_VALUE) throw new IOException("BLP size out of range: " + n);
+
+        int bytes = (int) ((n + 7) >>> 3);
+        long[] words = new long[Math.max(1, wordCount((int) n))];
+        byte[] buffer = new byte[STREAM_BUFFER];
+        ByteBuffer b = ByteBuffer.wrap(buffer).order(ByteOrder.LITTLE_ENDIAN);
+        for (int done = 0; done < bytes; done += STREAM_BUFFER) {
+            int len = Math.min(STREAM_BUFFER, bytes - done);
+            in.readFully(buffer, 0, len);
+            // Pad the last word with 0s
+            int padded = (len + Long.BYTES - 1) & -Long.BYTES;
+            Arrays.fill(buffer, len, padded, (byte) 0);
+
+            b.clear();
+            for (int w = done >>> 3, end = w + padded / Long.BYTES; w < end; w++)
+                words[w] = b.getLong();
         }
 
-        return new BinaryList(r, size);
+        modCount++;
+        this.words = words;
+        this.size = (int) n;
+        clearUnused();
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        write(out);
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException {
+        read(in);
     }
 
     // // Size manipulation
@@ -257,30 +1075,44 @@ public class BLP implements List<Boolean> {
         // can use Integer methods?
     }*/
 
+    /**
+     * Note: Does not check for concurrent modification.
+     */
     @Override
     public boolean equals(Object obj) {
         if (this == obj)
             return true;
-        if (obj == null)
-            return false;
-        if (getClass() != obj.getClass())
+        // also checks for null
+        if (!(obj instanceof List))
             return false;
-        BLP other = (BLP) obj;
-        if (size != other.size)
-            return false;
-        if (value() != other.value())
+
+        if (obj.getClass() == BLP.class) {
+            BLP other = (BLP) obj;
+            int n = wordCount(size);
+            return size == other.size && Arrays.equals(words, 0, n, other.words, 0, n);
+        }
+
+        List<?> other = (List<?>) obj;
+        if (size != other.size())
             return false;
+        BooleanIterator it1 = iterator();
+        Iterator<?> it2 = other.iterator();
+        while (it1.hasNext())
+            if (!Boolean.valueOf(it1.nextBoolean()).equals(it2.next()))
+                return false;
         return true;
     }
 
     @Override
     public int hashCode() {
-        final int prime = 31;
+        // As specified by List, so that equal lists of other classes hash the same
         int result = 1;
-        result = prime * result + size;
-        for (BinaryList b : list)
-            result = prime * result + b.value();
-        
+        for (int i = 0, n = wordCount(size); i < n; i++) {
+            long word = words[i];
+            int bits = Math.min(MAX_SIZE, size - i * MAX_SIZE);
+            for (int j = 0; j < bits; j++, word >>>= 1)
+                result = 31 * result + Boolean.hashCode((word & 1) != 0);
+        }
         return result;
     }
 
@@ -313,47 +1145,244 @@ public class BLP implements List<Boolean> {
     
     @Override
     public String toString() {
-        return String.format("%"+size()+"s", value().toString())
-                        .replace(' ', '0');
+        // Highest index first, as in BinaryList
+        StringBuilder sb = new StringBuilder(size);
+        for (int i = size - 1; i >= 0; i--)
+            sb.append(getBit(i) ? '1' : '0');
+        return sb.toString();
     }
 
     @Override
     public BLP clone() {
-        List<BinaryList> l = new ArrayList<>();
-        for (BinaryList b : list)
-            l.add(b.clone());
-        
-        return new BLP(l, size);
+        return new BLP(words.clone(), size);
+    }
+
+    @Override
+    public BooleanIterator iterator() {
+        return new BLPIterator(0);
     }
 
     @Override
-    public Iterator<Boolean> iterator() {
-        return new BLPIterator();
+    public ListIterator<Boolean> listIterator(int index) {
+        if (index < 0 || index > size) throw new IndexOutOfBoundsException();
+
+        return new BLPIteratorList(index);
+    }
+
+    /**
+     * Splits at word boundaries, for parallel streams.
+     */
+    @Override
+    public Spliterator<Boolean> spliterator() {
+        return new BooleanSpliterator(new BitSpliterator(0, size));
+    }
+
+    /**
+     * Returns the bits as a stream of 0s and 1s, without boxing.
+     * Parallel streams split it at word boundaries.
+     */
+    public IntStream bitStream() {
+        return StreamSupport.intStream(new BitSpliterator(0, size), false);
+    }
+
+    /**
+     * Hands out bits as 0s and 1s over [index, fence), splitting only at word boundaries
+     * so that no word is shared between tasks.
+     * Note: Does not check for concurrent modification.
+     */
+    class BitSpliterator implements Spliterator.OfInt {
+        // Splits are never smaller than this many bits
+        static final int MIN_SPLIT = 16 * MAX_SIZE;
+
+        // next index to hand out
+        int index;
+        // index after the last bit to hand out
+        final int fence;
+
+        BitSpliterator(int index, int fence) {
+            this.index = index;
+            this.fence = fence;
+        }
+
+        @Override
+        public OfInt trySplit() {
+            int mid = ((index + fence) >>> 1) & -MAX_SIZE;
+            if (mid - index < MIN_SPLIT / 2)
+                return null;
+            BitSpliterator prefix = new BitSpliterator(index, mid);
+            index = mid;
+            return prefix;
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            if (index >= fence)
+                return false;
+            action.accept((int) (words[index >>> 6] >>> index) & 1);
+            index++;
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            // One load per word
+            for (int i = index; i < fence; ) {
+                long word = words[i >>> 6] >>> i;
+                int end = Math.min(fence, (i | (MAX_SIZE - 1)) + 1);
+                for (; i < end; i++, word >>>= 1)
+                    action.accept((int) word & 1);
+            }
+            index = fence;
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | NONNULL;
+        }
+    }
+
+    /**
+     * A BitSpliterator that hands out Booleans, which are never allocated.
+     */
+    static class BooleanSpliterator implements Spliterator<Boolean> {
+        final Spliterator.OfInt bits;
+
+        BooleanSpliterator(Spliterator.OfInt bits) {
+            this.bits = bits;
+        }
+
+        @Override
+        public Spliterator<Boolean> trySplit() {
+            Spliterator.OfInt prefix = bits.trySplit();
+            return prefix == null ? null : new BooleanSpliterator(prefix);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Boolean> action) {
+            return bits.tryAdvance((int b) -> action.accept(b != 0));
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Boolean> action) {
+            bits.forEachRemaining((int b) -> action.accept(b != 0));
+        }
+
+        @Override
+        public long estimateSize() {
+            return bits.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return bits.characteristics();
+        }
     }
 
-    class BLPIterator implements Iterator<Boolean> {
-        // a
-        int n;
+    /**
+     * Loads one word, then steps through its bits by shifting.
+     * Note: Does not check for concurrent modification.
+     */
+    class BLPIterator implements BooleanIterator {
         // tracking current index in list
         int i;
-        BLPIterator() {
-            copy = list;
-            i = 0;
+        // current word, shifted so that bit 0 is element i
+        long copy;
+        // index of last element returned, -1 if none
+        int lastRet = -1;
+
+        BLPIterator(int index) {
+            i = index;
+            load();
+        }
+
+        void load() {
+            if (i < size)
+                copy = words[i >>> 6] >>> i;
         }
 
         @Override
         public boolean hasNext() {
-            return i != 0;
+            return i < size;
         }
 
         @Override
         public Boolean next() {
-            if (i < 1) throw new NoSuchElementException();;
+            return nextBoolean();
+        }
 
-            i--;
-            int n = copy % 2;
-            copy >>>= 1;
-            return n != 0;
+        @Override
+        public boolean nextBoolean() {
+            if (i >= size) throw new NoSuchElementException();
+
+            boolean b = (copy & 1) != 0;
+            lastRet = i++;
+            // Only touch memory again at the next word boundary
+            if ((i & (MAX_SIZE - 1)) == 0)
+                load();
+            else
+                copy >>>= 1;
+            return b;
+        }
+    }
+
+    class BLPIteratorList extends BLPIterator implements ListIterator<Boolean> {
+        BLPIteratorList(int index) {
+            super(index);
+        }
+
+        @Override
+        public boolean hasPrevious() {
+            return i > 0;
+        }
+
+        @Override
+        public Boolean previous() {
+            if (i <= 0) throw new NoSuchElementException();
+
+            lastRet = --i;
+            load();
+            return (copy & 1) != 0;
+        }
+
+        @Override
+        public int nextIndex() {
+            return i;
+        }
+
+        @Override
+        public int previousIndex() {
+            return i - 1;
+        }
+
+        @Override
+        public void remove() {
+            if (lastRet < 0) throw new IllegalStateException();
+
+            BLP.this.remove(lastRet);
+            if (lastRet < i)
+                i--;
+            lastRet = -1;
+            load();
+        }
+
+        @Override
+        public void set(Boolean e) {
+            if (lastRet < 0) throw new IllegalStateException();
+
+            setBit(lastRet, e);
+            load();
+        }
+
+        @Override
+        public void add(Boolean e) {
+            addBit(i++, e);
+            lastRet = -1;
+            load();
         }
     }
 
@@ -362,40 +1391,131 @@ public class BLP implements List<Boolean> {
         return size == 0;
     }
 
-    /**
-        * Unimplemented
-        */
     @Override
     public boolean contains(Object o) {
-        // TODO Auto-generated method stub
-        throw new UnsupportedOperationException("Unimplemented method 'contains'");
+        return indexOf(o) >= 0;
     }
 
-    /**
-        * Unsupported operation.
-        */
     @Override
     public boolean containsAll(Collection<?> c) {
-        // TODO Auto-generated method stub
-        throw new UnsupportedOperationException("Unimplemented method 'containsAll'");
+        for (Object o : c)
+            if (!contains(o))
+                return false;
+        return true;
     }
 
     /**
-        * Unsupported operation.
-        */
+     * Appends all of the booleans in the specified collection, packed 64 at a
+     * time before being stored. A BLP, BinaryList or LongBinaryList is copied
+     * by word, shifted into place.
+     * @return {@code true} if this list changed
+     */
     @Override
     public boolean addAll(Collection<? extends Boolean> c) {
-        // TODO Auto-generated method stub
-        throw new UnsupportedOperationException("Unimplemented method 'addAll'");
+        if (c.isEmpty())
+            return false;
+        modCount++;
+
+        if (c instanceof BLP) {
+            BLP other = (BLP) c;
+            appendWords(other.words, other.size);
+            return true;
+        }
+
+        int n = c.size();
+        checkGrowth(n);
+        ensureCapacity(size + n);
+
+        if (c instanceof BinaryList) {
+            appendBits(((BinaryList) c).value() & 0xFFFFFFFFL, n);
+            return true;
+        }
+        if (c instanceof LongBinaryList) {
+            appendBits(((LongBinaryList) c).value(), n);
+            return true;
+        }
+
+        long word = 0;
+        int i = 0;
+        for (boolean e : c) {
+            if (e)
+                word |= 1L << i;
+            if (++i == MAX_SIZE) {
+                appendBits(word, MAX_SIZE);
+                word = 0;
+                i = 0;
+            }
+        }
+        if (i != 0)
+            appendBits(word, i);
+        return true;
     }
 
     /**
-        * Unsupported operation.
-        */
+     * Inserts all of the booleans in the specified collection at the specified
+     * position. The bits after {@code index} are moved once, by word.
+     * @return {@code true} if this list changed
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         ({@code index < 0 || index > size()})
+     */
     @Override
     public boolean addAll(int index, Collection<? extends Boolean> c) {
-        // TODO Auto-generated method stub
-        throw new UnsupportedOperationException("Unimplemented method 'addAll'");
+        if (index < 0 || index > size) throw new IndexOutOfBoundsException();
+        if (index == size)
+            return addAll(c);
+        if (c.isEmpty())
+            return false;
+        checkGrowth(c.size());
+        if (c == this)
+            c = clone();
+
+        int oldSize = size;
+        long[] tail = extractWords(index, oldSize);
+        truncate(index);
+        addAll(c);
+        appendWords(tail, oldSize - index);
+        return true;
+    }
+
+    /**
+     * Appends all of the booleans in the specified array, packed 64 at a time.
+     * @return {@code true} if this list changed
+     */
+    public boolean addAll(boolean[] bits) {
+        if (bits.length == 0)
+            return false;
+        modCount++;
+        checkGrowth(bits.length);
+        ensureCapacity(size + bits.length);
+
+        int i = 0;
+        for (; i + MAX_SIZE <= bits.length; i += MAX_SIZE) {
+            long word = 0;
+            for (int j = 0; j < MAX_SIZE; j++)
+                if (bits[i + j])
+                    word |= 1L << j;
+            appendBits(word, MAX_SIZE);
+        }
+        long word = 0;
+        for (int j = 0; i + j < bits.length; j++)
+            if (bits[i + j])
+                word |= 1L << j;
+        appendBits(word, bits.length - i);
+        return true;
+    }
+
+    /**
+     * Appends the first {@code n} bits of a BitSet, which shares the word layout of BLP.
+     * @return {@code true} if this list changed
+     */
+    public boolean addAll(BitSet bits, int n) {
+        if (n < 0) throw new IllegalArgumentException();
+        if (n == 0)
+            return false;
+        modCount++;
+
+        appendWords(bits.toLongArray(), n);
+        return true;
     }
 
     /**
@@ -418,45 +1538,28 @@ public class BLP implements List<Boolean> {
 
     @Override
     public void clear() {
-        list.clear();
-        list.add(new BinaryList());
+        Arrays.fill(words, 0L);
         size = 0;
+        modCount++;
     }
 
-    /**
-        * Unsupported operation.
-        */
     @Override
     public int indexOf(Object o) {
-        // TODO Auto-generated method stub
-        throw new UnsupportedOperationException("Unimplemented method 'indexOf'");
+        if (!(o instanceof Boolean))
+            return -1;
+        return (Boolean) o ? nextSetBit(0) : nextClearBit(0);
     }
 
-    /**
-        * Unsupported operation.
-        */
     @Override
     public int lastIndexOf(Object o) {
-        // TODO Auto-generated method stub
-        throw new UnsupportedOperationException("Unimplemented method 'lastIndexOf'");
+        if (!(o instanceof Boolean))
+            return -1;
+        return (Boolean) o ? previousSetBit(size - 1) : previousClearBit(size - 1);
     }
 
-    /**
-        * Unsupported operation.
-        */
     @Override
     public ListIterator<Boolean> listIterator() {
-        // TODO Auto-generated method stub
-        throw new UnsupportedOperationException("Unimplemented method 'listIterator'");
-    }
-
-    /**
-        * Unsupported operation.
-        */
-    @Override
-    public ListIterator<Boolean> listIterator(int index) {
-        // TODO Auto-generated method stub
-        throw new UnsupportedOperationException("Unimplemented method 'listIterator'");
+        return listIterator(0);
     }
 
     /**
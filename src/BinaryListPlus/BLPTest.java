@@ -0,0 +1,401 @@
+package BinaryListPlus;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import BinaryList.BinaryList;
+import BinaryList.BooleanIterator;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+public class BLPTest {
+    @Test
+    public void testConstructor() {
+        assertEquals(0, new BLP().size());
+
+        BLP b = new BLP("011101");
+        assertEquals(BigInteger.valueOf(29), b.value());
+        assertEquals(6, b.size());
+    }
+
+    @Test(expected=NumberFormatException.class)
+    public void testConstructor2() {
+        new BLP("-1");
+    }
+
+    @Test
+    public void testAddAcrossWords() {
+        BLP b = new BLP();
+        List<Boolean> expected = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            b.add(i % 3 == 0);
+            expected.add(i % 3 == 0);
+        }
+        assertEquals(200, b.size());
+        assertEquals(expected, b);
+        assertEquals(b, expected);
+    }
+
+    @Test
+    public void testAdd2() {
+        BLP b = new BLP(2); // 10
+        b.add(0, true); // 101
+        assertEquals(BigInteger.valueOf(5), b.value());
+        b.add(1, false); // 1001
+        assertEquals(BigInteger.valueOf(9), b.value());
+    }
+
+    @Test
+    public void testInsertRemoveCarry() {
+        BLP b = new BLP();
+        List<Boolean> expected = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            b.add(i % 5 == 1);
+            expected.add(i % 5 == 1);
+        }
+
+        b.add(3, true);
+        expected.add(3, true);
+        b.add(64, true);
+        expected.add(64, true);
+        assertEquals(expected, b);
+
+        assertEquals(expected.remove(10), b.remove(10));
+        assertEquals(expected.remove(63), b.remove(63));
+        assertEquals(expected.remove(0), b.remove(0));
+        assertEquals(expected, b);
+    }
+
+    @Test
+    public void testSet() {
+        BLP b = new BLP(15);
+        b.set(2, false);
+        assertEquals(BigInteger.valueOf(11), b.value());
+        b.set(2, true);
+        assertEquals(BigInteger.valueOf(15), b.value());
+    }
+
+    @Test
+    public void testEquals() {
+        assertNotEquals(new BLP(), null);
+
+        BLP b1 = new BLP(5);
+        BLP b2 = new BLP(1, 2); b2.add(1);
+        assertEquals(b1, b2);
+        assertEquals(b1.hashCode(), b2.hashCode());
+
+        assertEquals(b1, Arrays.asList(true, false, true));
+        assertEquals(Arrays.asList(true, false, true).hashCode(), b1.hashCode());
+
+        // Across word boundaries, as equal Lists of other classes
+        List<Boolean> x = new ArrayList<>();
+        for (int i = 0; i < 150; i++)
+            x.add(i % 3 == 0);
+        assertEquals(new ArrayList<>(x).hashCode(), new BLP(x).hashCode());
+        assertEquals(new ChunkedBLP(x).hashCode(), new BLP(x).hashCode());
+    }
+
+    @Test
+    public void testCloneAndToString() {
+        BLP b1 = new BLP("1011");
+        BLP b2 = b1.clone();
+        b1.add(true);
+        assertNotEquals(b1, b2);
+        assertEquals("11011", b1.toString());
+        assertEquals("1011", b2.toString());
+    }
+
+    @Test
+    public void testReversed() {
+        BLP b = new BLP("0011");
+        assertEquals("1100", b.reversed().toString());
+
+        for (int size : new int[] {0, 1, 63, 64, 65, 130}) {
+            BLP l = new BLP();
+            List<Boolean> expected = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                l.addBit(i % 3 == 0 || i == size - 2);
+                expected.add(0, i % 3 == 0 || i == size - 2);
+            }
+            assertEquals(expected, l.reversed());
+            assertEquals(expected, l.reversedView());
+            assertEquals(expected, new ArrayList<>(l.reversedView()));
+            assertEquals(l, l.reversed().reversed());
+        }
+    }
+
+    @Test
+    public void testReversedView() {
+        BLP b = new BLP("0011");
+        List<Boolean> view = b.reversedView();
+        view.set(0, true); // 1011
+        view.add(0, true); // 1 1011
+        assertEquals("11011", b.toString());
+        assertTrue(view.remove(4)); // 1101
+        assertEquals("1101", b.toString());
+    }
+
+    @Test
+    public void testPrimitive() {
+        BLP b = new BLP();
+        for (int i = 0; i < 100; i++)
+            b.addBit(i == 70);
+        assertTrue(b.getBit(70));
+        b.flip(70);
+        b.flip(99);
+        assertFalse(b.setBit(5, true));
+        assertEquals(new BigInteger("1").shiftLeft(99).setBit(5), b.value());
+
+        int count = 0;
+        BooleanIterator it = b.iterator();
+        while (it.hasNext())
+            if (it.nextBoolean())
+                count++;
+        assertEquals(2, count);
+    }
+
+    @Test
+    public void testListIterator() {
+        BLP b = new BLP();
+        List<Boolean> expected = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            b.add(i % 7 == 0);
+            expected.add(i % 7 == 0);
+        }
+        assertEquals(expected, new ArrayList<>(b));
+
+        ListIterator<Boolean> it = b.listIterator(b.size());
+        ListIterator<Boolean> ex = expected.listIterator(expected.size());
+        while (ex.hasPrevious())
+            assertEquals(ex.previous(), it.previous());
+
+        it = b.listIterator(60);
+        ex = expected.listIterator(60);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(ex.next(), it.next());
+            it.add(true);
+            ex.add(true);
+        }
+        assertEquals(ex.next(), it.next());
+        it.remove();
+        ex.remove();
+        assertTrue(it.previous());
+        it.set(false);
+        ex.previous();
+        ex.set(false);
+        assertEquals(expected, b);
+    }
+
+    @Test
+    public void testBulk() {
+        BLP a = new BLP();
+        BLP b = new BLP();
+        for (int i = 0; i < 200; i++) {
+            a.add(i % 2 == 0);
+            b.add(i % 3 == 0);
+        }
+
+        BLP and = BLP.and(a, b), or = BLP.or(a, b), xor = BLP.xor(a, b), andNot = BLP.andNot(a, b), not = BLP.not(a);
+        for (int i = 0; i < 200; i++) {
+            assertEquals(a.getBit(i) & b.getBit(i), and.getBit(i));
+            assertEquals(a.getBit(i) | b.getBit(i), or.getBit(i));
+            assertEquals(a.getBit(i) ^ b.getBit(i), xor.getBit(i));
+            assertEquals(a.getBit(i) & !b.getBit(i), andNot.getBit(i));
+            assertEquals(!a.getBit(i), not.getBit(i));
+        }
+
+        // Shorter other counts as 0s, longer other is cut to size
+        BLP shortList = new BLP("1111");
+        BLP c = a.clone();
+        c.and(shortList);
+        assertEquals(200, c.size());
+        assertEquals(BigInteger.valueOf(5), c.value());
+        shortList.or(a);
+        assertEquals(4, shortList.size());
+        assertEquals(BigInteger.valueOf(15), shortList.value());
+    }
+
+    @Test
+    public void testRankSelect() {
+        BLP b = new BLP();
+        List<Integer> setBits = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            boolean e = i % 3 == 0 || i % 1000 < 10;
+            b.addBit(e);
+            if (e)
+                setBits.add(i);
+        }
+
+        for (int k = 0; k < setBits.size(); k += 7)
+            assertEquals((int) setBits.get(k), b.select(k));
+        assertEquals(-1, b.select(setBits.size()));
+
+        int expected = 0;
+        for (int i = 0; i <= b.size(); i += 13) {
+            while (expected < setBits.size() && setBits.get(expected) < i)
+                expected++;
+            assertEquals(expected, b.rank(i));
+        }
+        assertEquals(setBits.size(), b.rank(b.size()));
+
+        // Index is rebuilt after a change
+        b.setBit(1, true);
+        assertEquals(2, b.rank(2));
+        assertEquals(1, b.select(1));
+    }
+
+    @Test
+    public void testScan() {
+        BLP b = new BLP();
+        for (int i = 0; i < 1000; i++)
+            b.addBit(i == 5 || i == 700 || i == 701);
+
+        assertEquals(5, b.nextSetBit(0));
+        assertEquals(700, b.nextSetBit(6));
+        assertEquals(-1, b.nextSetBit(702));
+        assertEquals(702, b.nextClearBit(700));
+        assertEquals(701, b.previousSetBit(999));
+        assertEquals(5, b.previousSetBit(699));
+        assertEquals(-1, b.previousSetBit(4));
+        assertEquals(699, b.previousClearBit(701));
+
+        assertEquals(5, b.indexOf(true));
+        assertEquals(701, b.lastIndexOf(true));
+        assertEquals(999, b.lastIndexOf(false));
+        assertTrue(b.contains(true));
+        assertFalse(b.contains(null));
+        assertArrayEquals(new int[] {5, 700, 701}, b.setBits().toArray());
+
+        BLP ones = new BLP(-1, 32);
+        assertEquals(-1, ones.nextClearBit(0));
+        assertFalse(ones.contains(false));
+    }
+
+    @Test
+    public void testAddAll() {
+        List<Boolean> expected = new ArrayList<>();
+        boolean[] array = new boolean[150];
+        BitSet set = new BitSet();
+        for (int i = 0; i < 150; i++) {
+            expected.add(i % 4 == 1);
+            array[i] = i % 4 == 1;
+            set.set(i, i % 4 == 1);
+        }
+        assertEquals(expected, new BLP(expected));
+        assertEquals(expected, new BLP(array));
+        assertEquals(expected, new BLP(set, 150));
+        assertEquals(128, new BLP(new boolean[128]).size());
+
+        // Unaligned appends of every kind
+        BLP b = new BLP("101");
+        List<Boolean> all = new ArrayList<>(b);
+        b.addAll(new BLP(array));
+        all.addAll(expected);
+        b.addAll(new BinaryList("1101"));
+        all.addAll(new BinaryList("1101"));
+        b.addAll(set, 200);
+        all.addAll(expected);
+        for (int i = 150; i < 200; i++)
+            all.add(false);
+        b.addAll(b);
+        all.addAll(new ArrayList<>(all));
+        assertEquals(all, b);
+
+        // Insertion in the middle
+        b.addAll(70, expected);
+        all.addAll(70, expected);
+        b.addAll(3, b);
+        all.addAll(3, new ArrayList<>(all));
+        assertEquals(all, b);
+    }
+
+    @Test
+    public void testRange() {
+        BLP b = new BLP(new boolean[300]);
+        boolean[] expected = new boolean[300];
+
+        int[][] ranges = {{3, 5}, {60, 70}, {10, 250}, {128, 192}, {0, 300}, {299, 300}, {7, 7}};
+        for (int[] r : ranges) {
+            b.set(r[0], r[1], true);
+            for (int i = r[0]; i < r[1]; i++) expected[i] = true;
+            assertEquals(new BLP(expected), b);
+
+            b.flip(r[0] / 2, r[1]);
+            for (int i = r[0] / 2; i < r[1]; i++) expected[i] = !expected[i];
+            assertEquals(new BLP(expected), b);
+
+            int count = 0;
+            for (int i = r[0] / 3; i < r[1]; i++) if (expected[i]) count++;
+            assertEquals(count, b.cardinality(r[0] / 3, r[1]));
+
+            b.clear(r[0] / 4, r[1] / 2);
+            for (int i = r[0] / 4; i < r[1] / 2; i++) expected[i] = false;
+            assertEquals(new BLP(expected), b);
+        }
+
+        int count = 0;
+        for (boolean e : expected) if (e) count++;
+        assertEquals(count, b.cardinality());
+    }
+
+    @Test
+    public void testStreaming() throws IOException, ClassNotFoundException {
+        for (int n : new int[] {0, 1, 63, 64, 65, 70_000}) {
+            BLP b = new BLP();
+            for (int i = 0; i < n; i++)
+                b.addBit(i % 3 == 0 || i % 7 == 0);
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            b.writeTo(bytes);
+            b.writeTo(bytes);
+            // Varint size, then exactly ceil(n/8) bytes
+            int header = n < 128 ? 1 : n < 16384 ? 2 : 3;
+            assertEquals(2 * (header + (n + 7) / 8), bytes.size());
+
+            ByteArrayInputStream in = new ByteArrayInputStream(bytes.toByteArray());
+            assertEquals(b, BLP.readFrom(in));
+            assertEquals(b, BLP.readFrom(in));
+            assertEquals(0, in.available());
+        }
+
+        BLP b = new BLP("1011001");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(b);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            assertEquals(b, in.readObject());
+        }
+    }
+
+    @Test
+    public void testSpliterator() {
+        BLP b = new BLP();
+        for (int i = 0; i < 100_001; i++)
+            b.addBit(i % 3 == 0);
+
+        assertEquals(b.cardinality(), b.bitStream().parallel().sum());
+        assertEquals(b.size(), b.bitStream().parallel().count());
+        assertEquals(b, b.parallelStream().collect(Collectors.toList()));
+
+        // Splits fall on word boundaries
+        Spliterator<Boolean> s = b.spliterator();
+        Spliterator<Boolean> prefix = s.trySplit();
+        assertEquals(0, prefix.estimateSize() % BLP.MAX_SIZE);
+        assertEquals(b.size(), prefix.estimateSize() + s.estimateSize());
+        assertTrue(s.hasCharacteristics(Spliterator.SUBSIZED));
+        assertNull(new BLP("1011").spliterator().trySplit());
+    }
+}
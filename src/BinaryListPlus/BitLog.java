@@ -0,0 +1,231 @@
+package BinaryListPlus;
+
+import java.util.AbstractList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * An append-only list of bits that many threads can append to at once, without a global lock.
+ * A producer reserves a range of bits with one CAS on {@code reserved}, writes its
+ * bits with atomic ORs (ranges can share a word), and then counts them in {@code written},
+ * one counter per word. No producer waits for another: after writing, a producer advances
+ * {@code size} past every word whose reserved bits are all counted, so whichever producer
+ * finishes last publishes the bits of the others. Readers only look below {@code size},
+ * so they always see a complete prefix.
+ * Producers that batch bits through an {@link Appender} reserve up to the next word
+ * boundary, so each of their appends writes one word, and a whole word once aligned.
+ * Capacity is fixed at construction; the counters add 4 bytes per word.
+ */
+public class BitLog extends AbstractList<Boolean> {
+    final long[] words;
+    // Capacity in bits
+    final int capacity;
+    // Bits handed out to producers
+    final AtomicInteger reserved = new AtomicInteger();
+    // Bits written to each word, counted after they are written
+    final AtomicIntegerArray written;
+    // Bits written and visible to readers, always <= reserved
+    final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * Construct an empty log that holds up to {@code capacity} bits.
+     */
+    public BitLog(int capacity) {
+        if (capacity < 0) throw new IllegalArgumentException();
+        this.words = new long[BLP.wordCount(capacity)];
+        this.written = new AtomicIntegerArray(words.length);
+        this.capacity = capacity;
+    }
+
+    /**
+     * Returns the number of published bits.
+     */
+    public int size() {
+        return size.get();
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Appends the low {@code n} bits of {@code word}, {@code 0 <= n <= MAX_SIZE}.
+     * Never waits: the bits are published as soon as every bit reserved before them is written.
+     * @return index of the first appended bit
+     * @throws IndexOutOfBoundsException if the log has no room for {@code n} more bits
+     */
+    public int append(long word, int n) {
+        if (n < 0 || n > BLP.MAX_SIZE) throw new IllegalArgumentException();
+        if (n == 0)
+            return reserved.get();
+
+        // Reserve, never past capacity, so no range is left unwritten
+        int from;
+        do {
+            from = reserved.get();
+            if (from > capacity - n) throw new IndexOutOfBoundsException("BitLog overflow");
+        } while (!reserved.compareAndSet(from, from + n));
+
+        write(word, from, n);
+        return from;
+    }
+
+    /**
+     * Appends the low bits of {@code word}, at most {@code n} and no further than the
+     * next word boundary, so that they land in a single word.
+     * @return number of bits appended
+     * @throws IndexOutOfBoundsException if the log has no room for them
+     */
+    int appendInWord(long word, int n) {
+        int from;
+        int k;
+        do {
+            from = reserved.get();
+            k = Math.min(n, BLP.MAX_SIZE - (from & (BLP.MAX_SIZE - 1)));
+            if (from > capacity - k) throw new IndexOutOfBoundsException("BitLog overflow");
+        } while (!reserved.compareAndSet(from, from + k));
+
+        write(word, from, k);
+        return k;
+    }
+
+    /**
+     * Writes the low {@code n} bits of {@code word} to the reserved range at {@code from},
+     * counts them, and publishes what it can.
+     */
+    void write(long word, int from, int n) {
+        if (n < BLP.MAX_SIZE)
+            word &= (1L << n) - 1;
+        int w = from >>> 6;
+        int off = from & (BLP.MAX_SIZE - 1);
+        if (off == 0 && n == BLP.MAX_SIZE) {
+            // The whole word is ours
+            words[w] = word;
+        } else if (word != 0) {
+            ConcurrentBLP.WORDS.getAndBitwiseOr(words, w, word << off);
+            if (off + n > BLP.MAX_SIZE)
+                ConcurrentBLP.WORDS.getAndBitwiseOr(words, w + 1, word >>> -off);
+        }
+
+        int first = Math.min(n, BLP.MAX_SIZE - off);
+        written.getAndAdd(w, first);
+        if (n > first)
+            written.getAndAdd(w + 1, n - first);
+        publish();
+    }
+
+    /**
+     * Advances {@code size} over every word whose reserved bits have all been written.
+     * The count of a word is read before {@code reserved}, so every counted bit lies
+     * below the reservation read; if the two agree, no bit in between is missing.
+     */
+    void publish() {
+        for (;;) {
+            int from = size.get();
+            int end = from;
+            while (end < reserved.get()) {
+                int w = end >>> 6;
+                int count = written.get(w);
+                long start = (long) w << 6;
+                int limit = (int) Math.min(start + BLP.MAX_SIZE, reserved.get());
+                if (count != limit - start)
+                    break;
+                end = limit;
+                // The rest of a partial word is not reserved yet
+                if (limit != start + BLP.MAX_SIZE)
+                    break;
+            }
+            // A failed CAS means another producer published first, maybe less, so look again
+            if (end == from || size.compareAndSet(from, end))
+                return;
+        }
+    }
+
+    /**
+     * Appends the specified boolean. Producers appending many bits should use an {@link Appender}.
+     * @throws IndexOutOfBoundsException if the log is full
+     */
+    public void addBit(boolean e) {
+        append(e ? 1 : 0, 1);
+    }
+
+    public boolean add(Boolean e) {
+        addBit(e);
+        return true;
+    }
+
+    public Boolean get(int index) {
+        return getBit(index);
+    }
+
+    /**
+     * Returns the published bit at the specified position, without boxing.
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         ({@code index < 0 || index >= size()})
+     */
+    public boolean getBit(int index) {
+        if (index < 0 || index >= size.get()) throw new IndexOutOfBoundsException();
+
+        // Reading size above makes every published word visible
+        return (words[index >>> 6] >>> index & 1) != 0;
+    }
+
+    /**
+     * Returns a BLP with the bits published so far.
+     */
+    public BLP snapshot() {
+        int n = size.get();
+        long[] r = new long[Math.max(1, BLP.wordCount(n))];
+        System.arraycopy(words, 0, r, 0, BLP.wordCount(n));
+        BLP b = new BLP(r, n);
+        // Bits of a range reserved after n may already be in the last word
+        b.clearUnused();
+        return b;
+    }
+
+    /**
+     * Returns a new per-thread buffer that appends to this log.
+     */
+    public Appender appender() {
+        return new Appender();
+    }
+
+    /**
+     * Collects bits from one producer and appends them up to the next word boundary of
+     * the log at a time, keeping the rest, so each append touches a single word.
+     * Not thread-safe: each producer thread uses its own.
+     */
+    public class Appender {
+        // Pending bits, low bit first
+        long word;
+        // Number of pending bits
+        int count;
+
+        /**
+         * Buffers the specified boolean, appending from the buffer to the log when it holds a word.
+         */
+        public void addBit(boolean e) {
+            if (e)
+                word |= 1L << count;
+            if (++count == BLP.MAX_SIZE)
+                appendSome();
+        }
+
+        /**
+         * Appends any buffered bits to the log.
+         */
+        public void flush() {
+            while (count != 0)
+                appendSome();
+        }
+
+        /**
+         * Appends buffered bits up to the next word boundary of the log.
+         */
+        void appendSome() {
+            int k = appendInWord(word, count);
+            word = k == BLP.MAX_SIZE ? 0 : word >>> k;
+            count -= k;
+        }
+    }
+}
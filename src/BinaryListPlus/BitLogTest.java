@@ -0,0 +1,89 @@
+package BinaryListPlus;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BitLogTest {
+    @Test
+    public void testAppend() {
+        BitLog log = new BitLog(150);
+        log.addBit(true);
+        log.addBit(false);
+        assertEquals(2, log.append(-1L, 64));
+        BitLog.Appender a = log.appender();
+        for (int i = 0; i < 70; i++)
+            a.addBit(i % 2 == 0);
+        // Up to the word boundary at 128, keeping 8
+        assertEquals(128, log.size());
+        a.flush();
+        assertEquals(136, log.size());
+
+        BLP expected = new BLP();
+        expected.addBit(true);
+        expected.addBit(false);
+        for (int i = 0; i < 64; i++)
+            expected.addBit(true);
+        for (int i = 0; i < 70; i++)
+            expected.addBit(i % 2 == 0);
+        assertEquals(expected, log.snapshot());
+        assertEquals(expected, log);
+
+        try {
+            log.append(0, 64);
+            fail();
+        } catch (IndexOutOfBoundsException e) {
+        }
+        assertEquals(136, log.size());
+    }
+
+    @Test
+    public void testAppenderRealigns() {
+        BitLog log = new BitLog(1000);
+        log.addBit(true);
+        BitLog.Appender a = log.appender();
+        for (int i = 0; i < 64; i++)
+            a.addBit(true);
+        // Only the 63 bits up to the word boundary go, the last one waits
+        assertEquals(64, log.size());
+        for (int i = 0; i < 64; i++)
+            a.addBit(false);
+        assertEquals(128, log.size());
+        a.flush();
+        assertEquals(129, log.size());
+        assertEquals(65, log.snapshot().cardinality());
+    }
+
+    @Test
+    public void testProducers() throws InterruptedException {
+        int producers = 8;
+        int perProducer = 100_003;
+        BitLog log = new BitLog(producers * perProducer);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < producers; t++) {
+            boolean ones = t % 2 == 0;
+            Thread thread = new Thread(() -> {
+                BitLog.Appender a = log.appender();
+                for (int i = 0; i < perProducer; i++)
+                    a.addBit(ones);
+                a.flush();
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        // The published size only grows, while any producer is still running
+        for (int last = 0; threads.stream().anyMatch(Thread::isAlive); ) {
+            int size = log.size();
+            assertTrue(size >= last);
+            last = size;
+        }
+        for (Thread thread : threads)
+            thread.join();
+
+        assertEquals(producers * perProducer, log.size());
+        assertEquals(producers / 2 * perProducer, log.snapshot().cardinality());
+    }
+}
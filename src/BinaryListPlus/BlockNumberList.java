@@ -0,0 +1,236 @@
+package BinaryListPlus;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * A block encoded storage mode of NumberList, for sorted or clustered numbers
+ * such as timestamps and row ids, in the style of frame-of-reference coding.
+ * Numbers are grouped in blocks of {@code BLOCK_SIZE}. Each block stores its
+ * minimum, and each number as its offset from that minimum, packed at the
+ * fewest bits that hold the block's largest offset. A block of width
+ * {@code w} takes exactly {@code 2 * w} words, so blocks always start on a
+ * word, and a directory of start words gives O(1) {@link #getLong(int)}.
+ *
+ * Numbers are longs; offsets are unsigned, so any range of values fits.
+ * The last, partial block is kept unpacked until it fills.
+ * Only appending is supported, as a changed number can change its block's width.
+ */
+public class BlockNumberList extends AbstractList<Long> {
+    // Numbers in each block
+    public static final int BLOCK_SIZE = 128;
+
+    // Packed offsets of every full block
+    long[] words;
+    // Words in use
+    int wordsUsed;
+    // Minimum of each full block
+    long[] bases;
+    // First word of each full block
+    int[] starts;
+    // Bits per offset of each full block, 0 if every number is the same
+    byte[] widths;
+    // Number of full blocks
+    int blocks;
+    // Numbers of the last, partial block
+    final long[] pending = new long[BLOCK_SIZE];
+    // Number of elements in the list.
+    int size;
+
+    /**
+     * Construct with {@code size} set to 0.
+     */
+    public BlockNumberList() {
+        words = new long[16];
+        bases = new long[4];
+        starts = new int[4];
+        widths = new byte[4];
+    }
+
+    /**
+     * Collection constructor, as per specification of AbstractList.
+     * @param c
+     */
+    public BlockNumberList(Collection<? extends Long> c) {
+        this();
+        for (long e : c)
+            addLong(e);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Appends the specified number to the end of this list.
+     * @return {@code true} (as specified by {@link Collection#add})
+     */
+    public boolean add(Long e) {
+        addLong(e);
+        return true;
+    }
+
+    /**
+     * Appends the specified number to the end of this list, without boxing.
+     * Packs the last block once it holds {@code BLOCK_SIZE} numbers.
+     */
+    public void addLong(long e) {
+        if (size == Integer.MAX_VALUE) throw new IndexOutOfBoundsException("BlockNumberList overflow");
+        modCount++;
+
+        pending[size++ % BLOCK_SIZE] = e;
+        if (size % BLOCK_SIZE == 0)
+            pack();
+    }
+
+    /**
+     * Appends every number of {@code src}.
+     * @return {@code true} if this list changed as a result of the call
+     */
+    public boolean addAll(long[] src) {
+        for (long e : src)
+            addLong(e);
+        return src.length != 0;
+    }
+
+    /**
+     * Packs {@code pending} as a new full block.
+     */
+    void pack() {
+        long min = pending[0];
+        long max = pending[0];
+        for (long e : pending) {
+            min = Math.min(min, e);
+            max = Math.max(max, e);
+        }
+        // Unsigned, so ranges wider than Long.MAX_VALUE still fit in 64 bits
+        int width = NumberList.MAX_SIZE - Long.numberOfLeadingZeros(max - min);
+
+        if (blocks == bases.length) {
+            int n = bases.length + (bases.length >> 1);
+            bases = Arrays.copyOf(bases, n);
+            starts = Arrays.copyOf(starts, n);
+            widths = Arrays.copyOf(widths, n);
+        }
+        int need = BLOCK_SIZE * width / NumberList.MAX_SIZE;
+        if (wordsUsed + need > words.length)
+            words = Arrays.copyOf(words, Math.max(wordsUsed + need, words.length + (words.length >> 1)));
+
+        bases[blocks] = min;
+        starts[blocks] = wordsUsed;
+        widths[blocks] = (byte) width;
+        blocks++;
+
+        if (width != 0) {
+            // Offsets in place, as the block is done with pending
+            for (int j = 0; j < BLOCK_SIZE; j++)
+                pending[j] -= min;
+            NumberList.pack(words, (long) wordsUsed << 6, width, pending, 0, BLOCK_SIZE);
+        }
+        wordsUsed += need;
+    }
+
+    public Long get(int index) {
+        return getLong(index);
+    }
+
+    /**
+     * Returns the number at the specified position, without boxing, through the block directory.
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         ({@code index < 0 || index >= size()})
+     */
+    public long getLong(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException();
+
+        int b = index / BLOCK_SIZE;
+        int j = index % BLOCK_SIZE;
+        if (b == blocks)
+            return pending[j];
+
+        int width = widths[b];
+        if (width == 0)
+            return bases[b];
+        int bit = j * width;
+        int w = starts[b] + (bit >>> 6);
+        int off = bit & (NumberList.MAX_SIZE - 1);
+
+        long offset = words[w] >>> off;
+        if (off + width > NumberList.MAX_SIZE)
+            offset |= words[w + 1] << -off;
+        return bases[b] + (offset & (-1L >>> -width));
+    }
+
+    /**
+     * Decodes every number of block {@code b} into {@code dest}, starting at {@code off}.
+     * The last block may be partial.
+     * @return number of values decoded
+     * @throws IndexOutOfBoundsException if there is no such block
+     */
+    public int decodeBlock(int b, long[] dest, int off) {
+        if (b < 0 || b > blocks || (b == blocks && size % BLOCK_SIZE == 0)) throw new IndexOutOfBoundsException();
+        if (b == blocks) {
+            System.arraycopy(pending, 0, dest, off, size % BLOCK_SIZE);
+            return size % BLOCK_SIZE;
+        }
+
+        int width = widths[b];
+        long base = bases[b];
+        if (width == 0) {
+            Arrays.fill(dest, off, off + BLOCK_SIZE, base);
+            return BLOCK_SIZE;
+        }
+
+        NumberList.unpack(words, (long) starts[b] << 6, width, dest, off, BLOCK_SIZE);
+        for (int j = off; j < off + BLOCK_SIZE; j++)
+            dest[j] += base;
+        return BLOCK_SIZE;
+    }
+
+    /**
+     * Returns the approximate memory used, in bytes, for comparison with a flat NumberList.
+     */
+    public long sizeInBytes() {
+        return 16 + 8L * words.length + 13L * bases.length + 8L * BLOCK_SIZE;
+    }
+
+    @Override
+    public void clear() {
+        modCount++;
+        wordsUsed = 0;
+        blocks = 0;
+        size = 0;
+    }
+
+    @Override
+    public PrimitiveIterator.OfLong iterator() {
+        return new BlockIterator();
+    }
+
+    /**
+     * Decodes a whole block at a time.
+     * Note: Does not check for concurrent modification.
+     */
+    class BlockIterator implements PrimitiveIterator.OfLong {
+        // tracking current index in list
+        int i;
+        // current block, decoded
+        final long[] block = new long[BLOCK_SIZE];
+
+        @Override
+        public boolean hasNext() {
+            return i < size;
+        }
+
+        @Override
+        public long nextLong() {
+            if (i >= size) throw new NoSuchElementException();
+
+            if (i % BLOCK_SIZE == 0)
+                decodeBlock(i / BLOCK_SIZE, block, 0);
+            return block[i++ % BLOCK_SIZE];
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package BinaryListPlus;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class BlockNumberListTest {
+    @Test
+    public void testSortedTimestamps() {
+        Random random = new Random(42);
+        BlockNumberList b = new BlockNumberList();
+        List<Long> expected = new ArrayList<>();
+        long t = 1_700_000_000_000L;
+        for (int i = 0; i < 100_050; i++) {
+            t += random.nextInt(1000);
+            b.addLong(t);
+            expected.add(t);
+        }
+        assertEquals(expected, b);
+        for (int i = 0; i < expected.size(); i += 97)
+            assertEquals((long) expected.get(i), b.getLong(i));
+
+        // Each block needs about 17 bits per number, against 41 for the flat width
+        assertTrue(b.sizeInBytes() * 2 < NumberList.wordCount(41L * expected.size()) * 8L);
+
+        long[] block = new long[BlockNumberList.BLOCK_SIZE];
+        assertEquals(BlockNumberList.BLOCK_SIZE, b.decodeBlock(3, block, 0));
+        assertEquals((long) expected.get(3 * BlockNumberList.BLOCK_SIZE + 5), block[5]);
+        assertEquals(100_050 % BlockNumberList.BLOCK_SIZE, b.decodeBlock(100_050 / BlockNumberList.BLOCK_SIZE, block, 0));
+    }
+
+    @Test
+    public void testWidths() {
+        BlockNumberList b = new BlockNumberList();
+        List<Long> expected = new ArrayList<>();
+        Random random = new Random(1);
+        // Constant, full 64 bit and mixed sign blocks
+        for (int i = 0; i < 128; i++) {
+            b.addLong(7);
+            expected.add(7L);
+        }
+        for (int i = 0; i < 128; i++) {
+            long e = random.nextLong();
+            b.addLong(e);
+            expected.add(e);
+        }
+        b.addLong(Long.MIN_VALUE);
+        b.addLong(Long.MAX_VALUE);
+        expected.add(Long.MIN_VALUE);
+        expected.add(Long.MAX_VALUE);
+        for (int i = 0; i < 126; i++) {
+            b.addLong(-i);
+            expected.add((long) -i);
+        }
+        assertEquals(expected, b);
+        assertEquals(0, b.widths[0]);
+        assertEquals(64, b.widths[2]);
+        for (int i = 0; i < expected.size(); i++)
+            assertEquals((long) expected.get(i), b.getLong(i));
+    }
+}
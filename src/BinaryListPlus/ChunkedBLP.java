@@ -0,0 +1,426 @@
+package BinaryListPlus;
+import BinaryList.BooleanIterator;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * A storage mode of BLP for lists with many positional inserts and removes.
+ * Bits are kept in a balanced tree of bounded BLP chunks, in the style of a
+ * rope or B+-tree, and every node records its bit count. Positional
+ * get/set/add/remove descend in O(log n) and only move bits within one chunk,
+ * instead of every later word as in a flat BLP.
+ */
+public class ChunkedBLP extends AbstractList<Boolean> {
+    // Max bits in each chunk
+    public static final int CHUNK_SIZE = 64 * BLP.MAX_SIZE;
+    // Max children of each inner node
+    static final int FANOUT = 32;
+
+    abstract static class Node {
+        // Number of bits in this subtree
+        int size;
+    }
+
+    static final class Leaf extends Node {
+        final BLP chunk;
+
+        Leaf(BLP chunk) {
+            this.chunk = chunk;
+            this.size = chunk.size();
+        }
+    }
+
+    static final class Inner extends Node {
+        // One spare slot, filled just before a split
+        final Node[] children = new Node[FANOUT + 1];
+        int count;
+
+        void insert(int c, Node child) {
+            System.arraycopy(children, c, children, c + 1, count - c);
+            children[c] = child;
+            count++;
+        }
+
+        void removeAt(int c) {
+            System.arraycopy(children, c + 1, children, c, count - c - 1);
+            children[--count] = null;
+        }
+    }
+
+    /**
+     * A leaf found by {@link #leafAt(int)}, and the offset of the index within it.
+     * Local to each call, so that concurrent readers never share one.
+     */
+    static final class Position {
+        final Leaf leaf;
+        final int offset;
+
+        Position(Leaf leaf, int offset) {
+            this.leaf = leaf;
+            this.offset = offset;
+        }
+    }
+
+    Node root;
+
+    /**
+     * Construct an empty list.
+     */
+    public ChunkedBLP() {
+        root = new Leaf(new BLP());
+    }
+
+    /**
+     * Collection constructor, as per specification of AbstractList.
+     * Packs {@code c} into a BLP, then builds the tree bottom-up from 3/4 full chunks.
+     * @param c
+     */
+    public ChunkedBLP(Collection<? extends Boolean> c) {
+        BLP all = c instanceof BLP ? (BLP) c : new BLP(c);
+        int step = CHUNK_SIZE / 4 * 3;
+
+        List<Node> level = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += step) {
+            int to = Math.min(all.size(), from + step);
+            BLP chunk = new BLP();
+            chunk.appendWords(all.extractWords(from, to), to - from);
+            level.add(new Leaf(chunk));
+        }
+        if (level.isEmpty())
+            level.add(new Leaf(new BLP()));
+
+        while (level.size() > 1) {
+            List<Node> parents = new ArrayList<>();
+            for (int i = 0; i < level.size(); i += FANOUT / 4 * 3) {
+                Inner in = new Inner();
+                for (Node child : level.subList(i, Math.min(level.size(), i + FANOUT / 4 * 3))) {
+                    in.children[in.count++] = child;
+                    in.size += child.size;
+                }
+                parents.add(in);
+            }
+            level = parents;
+        }
+        root = level.get(0);
+    }
+
+    public int size() {
+        return root.size;
+    }
+
+    /**
+     * Descends to the leaf holding {@code index}, and returns it with the offset within it.
+     */
+    Position leafAt(int index) {
+        Node n = root;
+        while (n instanceof Inner) {
+            Inner in = (Inner) n;
+            int c = 0;
+            while (index >= in.children[c].size) {
+                index -= in.children[c].size;
+                c++;
+            }
+            n = in.children[c];
+        }
+        return new Position((Leaf) n, index);
+    }
+
+    public Boolean get(int index) {
+        return getBit(index);
+    }
+
+    /**
+     * Returns the bit at the specified position, without boxing.
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         ({@code index < 0 || index >= size()})
+     */
+    public boolean getBit(int index) {
+        if (index < 0 || index >= size()) throw new IndexOutOfBoundsException();
+
+        Position p = leafAt(index);
+        return p.leaf.chunk.getBit(p.offset);
+    }
+
+    public Boolean set(int index, Boolean element) {
+        return setBit(index, element);
+    }
+
+    /**
+     * Replaces the bit at the specified position, without boxing.
+     * @return the bit previously at the specified position
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         ({@code index < 0 || index >= size()})
+     */
+    public boolean setBit(int index, boolean element) {
+        if (index < 0 || index >= size()) throw new IndexOutOfBoundsException();
+
+        Position p = leafAt(index);
+        return p.leaf.chunk.setBit(p.offset, element);
+    }
+
+    /**
+     * Inverts the bit at the specified position.
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         ({@code index < 0 || index >= size()})
+     */
+    public void flip(int index) {
+        if (index < 0 || index >= size()) throw new IndexOutOfBoundsException();
+
+        Position p = leafAt(index);
+        p.leaf.chunk.flip(p.offset);
+    }
+
+    /**
+     * Appends the specified boolean to the end of this list, without boxing.
+     * @param e boolean to be appended to this list
+     */
+    public void addBit(boolean e) {
+        addBit(size(), e);
+    }
+
+    public void add(int index, Boolean element) {
+        addBit(index, element);
+    }
+
+    /**
+     * Inserts the specified boolean at the specified position in this
+     * list. Shifts the bit currently at that position (if any) and
+     * any subsequent bits to the left (adds one to their indices).
+     * Only the bits of one chunk are moved.
+     *
+     * @param index index at which the specified boolean is to be inserted
+     * @param element boolean to be inserted
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         ({@code index < 0 || index > size()})
+     */
+    public void addBit(int index, boolean element) {
+        if (index < 0 || index > size()) throw new IndexOutOfBoundsException();
+        if (size() == Integer.MAX_VALUE) throw new IndexOutOfBoundsException("ChunkedBLP overflow");
+        modCount++;
+
+        Node split = insert(root, index, element);
+        if (split != null) {
+            Inner r = new Inner();
+            r.children[0] = root;
+            r.children[1] = split;
+            r.count = 2;
+            r.size = root.size + split.size;
+            root = r;
+        }
+    }
+
+    /**
+     * Inserts into the subtree of {@code node}.
+     * @return the new right sibling of {@code node} if it had to split, else null
+     */
+    Node insert(Node node, int index, boolean element) {
+        node.size++;
+
+        if (node instanceof Leaf) {
+            Leaf leaf = (Leaf) node;
+            leaf.chunk.addBit(index, element);
+            if (leaf.size <= CHUNK_SIZE)
+                return null;
+
+            // Move the upper half into a new chunk
+            int half = leaf.size / 2;
+            BLP right = new BLP();
+            right.appendWords(leaf.chunk.extractWords(half, leaf.size), leaf.size - half);
+            leaf.chunk.truncate(half);
+            leaf.size = half;
+            return new Leaf(right);
+        }
+
+        Inner in = (Inner) node;
+        int c = 0;
+        // Appending to the end of a child is allowed
+        while (c < in.count - 1 && index > in.children[c].size) {
+            index -= in.children[c].size;
+            c++;
+        }
+
+        Node split = insert(in.children[c], index, element);
+        if (split == null)
+            return null;
+        in.insert(c + 1, split);
+        if (in.count <= FANOUT)
+            return null;
+
+        // Move the upper half of the children into a new node
+        Inner right = new Inner();
+        int half = in.count / 2;
+        for (int i = half; i < in.count; i++) {
+            right.children[right.count++] = in.children[i];
+            right.size += in.children[i].size;
+            in.children[i] = null;
+        }
+        in.count = half;
+        in.size -= right.size;
+        return right;
+    }
+
+    /**
+     * Removes the bit at the specified position in this list.
+     * Shifts any subsequent bits to the left (subtracts one from their
+     * indices). Only the bits of one chunk are moved.
+     *
+     * @param index the index of the bit to be removed
+     * @return the boolean that was removed from the list
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         ({@code index < 0 || index >= size()})
+     */
+    public Boolean remove(int index) {
+        if (index < 0 || index >= size()) throw new IndexOutOfBoundsException();
+        modCount++;
+
+        boolean p = remove(root, index);
+
+        // Collapse a root with a single child
+        while (root instanceof Inner && ((Inner) root).count == 1)
+            root = ((Inner) root).children[0];
+        return p;
+    }
+
+    /**
+     * Removes from the subtree of {@code node}, merging underfull children with a neighbour.
+     */
+    boolean remove(Node node, int index) {
+        node.size--;
+
+        if (node instanceof Leaf)
+            return ((Leaf) node).chunk.remove(index);
+
+        Inner in = (Inner) node;
+        int c = 0;
+        while (index >= in.children[c].size) {
+            index -= in.children[c].size;
+            c++;
+        }
+
+        boolean p = remove(in.children[c], index);
+        Node child = in.children[c];
+
+        if (child.size == 0) {
+            in.removeAt(c);
+        } else if (underfull(child) && in.count > 1) {
+            int l = c + 1 < in.count ? c : c - 1;
+            Node a = in.children[l];
+            Node b = in.children[l + 1];
+            if (merge(a, b))
+                in.removeAt(l + 1);
+        }
+        return p;
+    }
+
+    static boolean underfull(Node n) {
+        if (n instanceof Leaf)
+            return n.size < CHUNK_SIZE / 4;
+        return ((Inner) n).count < FANOUT / 4;
+    }
+
+    /**
+     * Moves everything in {@code b} to the end of {@code a}, if it fits.
+     * @return {@code true} if merged
+     */
+    static boolean merge(Node a, Node b) {
+        if (a instanceof Leaf) {
+            if (a.size + b.size > CHUNK_SIZE)
+                return false;
+            ((Leaf) a).chunk.addAll(((Leaf) b).chunk);
+        } else {
+            Inner ia = (Inner) a;
+            Inner ib = (Inner) b;
+            if (ia.count + ib.count > FANOUT)
+                return false;
+            System.arraycopy(ib.children, 0, ia.children, ia.count, ib.count);
+            ia.count += ib.count;
+        }
+        a.size += b.size;
+        return true;
+    }
+
+    /**
+     * Returns the number of set bits.
+     */
+    public int cardinality() {
+        int count = 0;
+        for (BLP chunk : chunks())
+            count += chunk.cardinality();
+        return count;
+    }
+
+    /**
+     * Returns a flat BLP with the same bits.
+     */
+    public BLP toBLP() {
+        BLP r = new BLP();
+        for (BLP chunk : chunks())
+            r.addAll(chunk);
+        return r;
+    }
+
+    /**
+     * Returns the chunks in order.
+     */
+    List<BLP> chunks() {
+        List<BLP> r = new ArrayList<>();
+        collect(root, r);
+        return r;
+    }
+
+    static void collect(Node node, List<BLP> r) {
+        if (node instanceof Leaf) {
+            r.add(((Leaf) node).chunk);
+            return;
+        }
+        Inner in = (Inner) node;
+        for (int i = 0; i < in.count; i++)
+            collect(in.children[i], r);
+    }
+
+    @Override
+    public void clear() {
+        modCount++;
+        root = new Leaf(new BLP());
+    }
+
+    @Override
+    public BooleanIterator iterator() {
+        return new ChunkedIterator();
+    }
+
+    /**
+     * Walks one chunk at a time with that chunk's word-at-a-time iterator.
+     * Note: Does not check for concurrent modification.
+     */
+    class ChunkedIterator implements BooleanIterator {
+        // tracking current index in list
+        int i;
+        // index after the current chunk
+        int chunkEnd;
+        // iterator over the current chunk
+        BooleanIterator chunkIt;
+
+        @Override
+        public boolean hasNext() {
+            return i < size();
+        }
+
+        @Override
+        public boolean nextBoolean() {
+            if (i >= size()) throw new NoSuchElementException();
+
+            if (i == chunkEnd) {
+                Position p = leafAt(i);
+                chunkIt = p.leaf.chunk.new BLPIterator(p.offset);
+                chunkEnd = i + p.leaf.size - p.offset;
+            }
+            i++;
+            return chunkIt.nextBoolean();
+        }
+    }
+}
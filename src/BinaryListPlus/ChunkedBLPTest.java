@@ -0,0 +1,95 @@
+package BinaryListPlus;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ChunkedBLPTest {
+    @Test
+    public void testInsertRemove() {
+        Random random = new Random(42);
+        ChunkedBLP b = new ChunkedBLP();
+        List<Boolean> expected = new ArrayList<>();
+
+        // Appending leaves half full chunks behind, enough to split inner nodes
+        for (int i = 0; i < 100_000; i++) {
+            boolean e = random.nextBoolean();
+            b.addBit(e);
+            expected.add(e);
+        }
+        for (int i = 0; i < 50_000; i++) {
+            int index = random.nextInt(expected.size() + 1);
+            boolean e = random.nextBoolean();
+            b.addBit(index, e);
+            expected.add(index, e);
+        }
+        assertEquals(expected.size(), b.size());
+        assertEquals(expected, b);
+        // Root has split into inner nodes
+        ChunkedBLP.Inner root = (ChunkedBLP.Inner) b.root;
+        assertTrue(root.children[0] instanceof ChunkedBLP.Inner);
+
+        for (int i = 0; i < 140_000; i++) {
+            int index = random.nextInt(expected.size());
+            assertEquals(expected.remove(index), b.remove(index));
+        }
+        assertEquals(expected, b);
+        assertEquals(expected, b.toBLP());
+
+        while (!expected.isEmpty())
+            assertEquals(expected.remove(0), b.remove(0));
+        assertTrue(b.isEmpty());
+        b.add(true);
+        assertTrue(b.get(0));
+    }
+
+    @Test
+    public void testBulkAndSet() {
+        BLP flat = new BLP();
+        for (int i = 0; i < 50_000; i++)
+            flat.addBit(i % 5 == 0);
+
+        ChunkedBLP b = new ChunkedBLP(flat);
+        assertEquals(flat, b);
+        assertEquals(flat.cardinality(), b.cardinality());
+
+        assertFalse(b.setBit(12_346, true));
+        b.flip(40_000);
+        flat.setBit(12_346, true);
+        flat.flip(40_000);
+        assertEquals(flat, b.toBLP());
+    }
+
+    @Test
+    public void testConcurrentReaders() throws InterruptedException {
+        BLP flat = new BLP();
+        Random random = new Random(7);
+        for (int i = 0; i < 1_000_000; i++)
+            flat.addBit(random.nextBoolean());
+        ChunkedBLP b = new ChunkedBLP(flat);
+
+        // Readers share nothing, so every read matches
+        AtomicInteger wrong = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            long seed = t;
+            Thread thread = new Thread(() -> {
+                Random r = new Random(seed);
+                for (int i = 0; i < 500_000; i++) {
+                    int index = r.nextInt(flat.size());
+                    if (b.getBit(index) != flat.getBit(index))
+                        wrong.incrementAndGet();
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads)
+            thread.join();
+        assertEquals(0, wrong.get());
+    }
+}
@@ -0,0 +1,862 @@
+package BinaryListPlus;
+import BinaryList.BooleanIterator;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A compressed storage mode of BLP for sparse, dense or run-heavy lists, in
+ * the style of Roaring bitmaps. The index space is split into chunks of 2^16
+ * bits, and each chunk with set bits has one container:
+ * <ul>
+ * <li>array - sorted positions of set bits, for up to {@code ARRAY_MAX} bits</li>
+ * <li>bitmap - 1024 words, as in BLP</li>
+ * <li>run - sorted (start, length - 1) pairs</li>
+ * </ul>
+ * Arrays and bitmaps convert into each other as they fill and empty.
+ * Run containers are chosen by {@link #runOptimize()} and by bulk construction,
+ * and turn back into an array or bitmap when modified.
+ *
+ * Positions are stored as {@code char}, Java's unsigned 16-bit type.
+ * Only appending is supported, as positional insert would shift every later chunk.
+ */
+public class CompressedBLP extends AbstractList<Boolean> {
+    // Bits in each chunk
+    public static final int CHUNK_SIZE = 1 << 16;
+    // Max set bits in an array container, above which a bitmap is smaller
+    static final int ARRAY_MAX = 4096;
+    // Words in a bitmap container
+    static final int BITMAP_WORDS = CHUNK_SIZE / BLP.MAX_SIZE;
+
+    // Container of each chunk, null if the chunk has no set bits
+    Container[] containers;
+    // Number of elements in the list.
+    int size;
+
+    /**
+     * Construct with {@code size} set to 0.
+     */
+    public CompressedBLP() {
+        this(0);
+    }
+
+    /**
+     * Construct with {@code size} clear bits, which take no containers.
+     * @param size number of bits
+     */
+    public CompressedBLP(int size) {
+        if (size < 0) throw new IllegalArgumentException();
+
+        this.size = size;
+        this.containers = new Container[chunkCount(size)];
+    }
+
+    /**
+     * Construct from the bits of a BLP, choosing the smallest container for each chunk.
+     * @param bits initial elements of the list
+     */
+    public CompressedBLP(BLP bits) {
+        this(bits.size());
+
+        int n = BLP.wordCount(size);
+        for (int k = 0; k < containers.length; k++) {
+            int from = k * BITMAP_WORDS;
+            int len = Math.min(BITMAP_WORDS, n - from);
+            BitmapContainer b = new BitmapContainer();
+            System.arraycopy(bits.words, from, b.words, 0, len);
+            b.card = b.computeCardinality();
+            containers[k] = best(b);
+        }
+    }
+
+    /**
+     * Number of chunks needed to hold {@code bits} bits.
+     */
+    static int chunkCount(int bits) {
+        return (int) (((long) bits + CHUNK_SIZE - 1) >>> 16);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Boolean get(int index) {
+        return getBit(index);
+    }
+
+    /**
+     * Returns the bit at the specified position, without boxing.
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         ({@code index < 0 || index >= size()})
+     */
+    public boolean getBit(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException();
+
+        Container c = containers[index >>> 16];
+        return c != null && c.contains(index & (CHUNK_SIZE - 1));
+    }
+
+    public Boolean set(int index, Boolean element) {
+        return setBit(index, element);
+    }
+
+    /**
+     * Replaces the bit at the specified position, without boxing.
+     * @return the bit previously at the specified position
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         ({@code index < 0 || index >= size()})
+     */
+    public boolean setBit(int index, boolean element) {
+        // Replaced bit
+        boolean p = getBit(index);
+
+        if (p != element)
+            flip(index);
+        return p;
+    }
+
+    /**
+     * Inverts the bit at the specified position.
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         ({@code index < 0 || index >= size()})
+     */
+    public void flip(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException();
+
+        int k = index >>> 16;
+        int x = index & (CHUNK_SIZE - 1);
+        Container c = containers[k];
+        if (c == null)
+            containers[k] = new ArrayContainer().add(x);
+        else if (c.contains(x))
+            containers[k] = c.remove(x).normalize();
+        else
+            containers[k] = c.add(x);
+    }
+
+    /**
+     * Appends the specified boolean to the end of this list, without boxing.
+     * @param e boolean to be appended to this list
+     */
+    public void addBit(boolean e) {
+        if (size == Integer.MAX_VALUE) throw new IndexOutOfBoundsException("CompressedBLP overflow");
+
+        size++;
+        if (chunkCount(size) > containers.length)
+            containers = Arrays.copyOf(containers, Math.max(chunkCount(size), containers.length + (containers.length >> 1)));
+        if (e)
+            flip(size - 1);
+    }
+
+    /**
+     * Appends the specified boolean. Inserting anywhere but the end is unsupported.
+     * @throws UnsupportedOperationException if {@code index != size()}
+     */
+    public void add(int index, Boolean element) {
+        if (index != size) throw new UnsupportedOperationException("CompressedBLP only supports appending");
+
+        addBit(element);
+        modCount++;
+    }
+
+    /**
+     * Returns the number of set bits.
+     */
+    public int cardinality() {
+        int count = 0;
+        for (int k = 0; k < chunkCount(size); k++)
+            if (containers[k] != null)
+                count += containers[k].cardinality();
+        return count;
+    }
+
+    /**
+     * Returns the index of the first set bit at or after {@code from}, or -1 if there is none.
+     * Chunks without a container are skipped without being read.
+     * @throws IndexOutOfBoundsException if {@code from < 0}
+     */
+    public int nextSetBit(int from) {
+        if (from < 0) throw new IndexOutOfBoundsException();
+        if (from >= size) return -1;
+
+        int x = from & (CHUNK_SIZE - 1);
+        for (int k = from >>> 16, n = chunkCount(size); k < n; k++, x = 0) {
+            if (containers[k] == null)
+                continue;
+            int i = containers[k].nextSetBit(x);
+            if (i >= 0)
+                return (k << 16) + i;
+        }
+        return -1;
+    }
+
+    /**
+     * Re-compresses every container into the smallest of array, bitmap or run.
+     */
+    public void runOptimize() {
+        for (int k = 0; k < containers.length; k++)
+            if (containers[k] != null)
+                containers[k] = best(containers[k].toBitmap());
+    }
+
+    /**
+     * Returns an estimate of the memory used by the containers, in bytes.
+     */
+    public long sizeInBytes() {
+        long bytes = 16 + 4L * containers.length;
+        for (Container c : containers)
+            if (c != null)
+                bytes += c.sizeInBytes();
+        return bytes;
+    }
+
+    /**
+     * Returns a flat BLP with the same bits.
+     */
+    public BLP toBLP() {
+        long[] words = new long[Math.max(1, BLP.wordCount(size))];
+        for (int k = 0; k < chunkCount(size); k++) {
+            if (containers[k] == null)
+                continue;
+            long[] chunk = containers[k].toBitmap().words;
+            System.arraycopy(chunk, 0, words, k * BITMAP_WORDS, Math.min(BITMAP_WORDS, words.length - k * BITMAP_WORDS));
+        }
+        return new BLP(words, size);
+    }
+
+    // Bulk boolean algebra
+    // Each operation works chunk by chunk on the containers. Bits of {@code other}
+    // beyond its size count as 0, and bits beyond this list's size are ignored,
+    // so the size of this list never changes.
+
+    /**
+     * Performs a logical AND of this list with {@code other}, in place.
+     */
+    public void and(CompressedBLP other) {
+        for (int k = 0; k < chunkCount(size); k++)
+            containers[k] = Container.and(containers[k], other.container(k));
+    }
+
+    /**
+     * Performs a logical OR of this list with {@code other}, in place.
+     */
+    public void or(CompressedBLP other) {
+        for (int k = 0; k < chunkCount(size); k++)
+            containers[k] = Container.or(containers[k], other.container(k));
+        clipLast();
+    }
+
+    /**
+     * Performs a logical XOR of this list with {@code other}, in place.
+     */
+    public void xor(CompressedBLP other) {
+        for (int k = 0; k < chunkCount(size); k++)
+            containers[k] = Container.xor(containers[k], other.container(k));
+        clipLast();
+    }
+
+    /**
+     * Clears every bit of this list that is set in {@code other}, in place.
+     */
+    public void andNot(CompressedBLP other) {
+        for (int k = 0; k < chunkCount(size); k++)
+            containers[k] = Container.andNot(containers[k], other.container(k));
+    }
+
+    /**
+     * Returns a new list that is the logical AND of {@code a} and {@code b}, with the size of {@code a}.
+     */
+    public static CompressedBLP and(CompressedBLP a, CompressedBLP b) {
+        CompressedBLP r = new CompressedBLP(a.size);
+        for (int k = 0; k < r.containers.length; k++)
+            r.containers[k] = Container.and(a.containers[k], b.container(k));
+        return r;
+    }
+
+    /**
+     * Returns a new list that is the logical OR of {@code a} and {@code b}, with the size of {@code a}.
+     */
+    public static CompressedBLP or(CompressedBLP a, CompressedBLP b) {
+        CompressedBLP r = new CompressedBLP(a.size);
+        for (int k = 0; k < r.containers.length; k++)
+            r.containers[k] = Container.or(a.containers[k], b.container(k));
+        r.clipLast();
+        return r;
+    }
+
+    /**
+     * Returns a new list that is the logical XOR of {@code a} and {@code b}, with the size of {@code a}.
+     */
+    public static CompressedBLP xor(CompressedBLP a, CompressedBLP b) {
+        CompressedBLP r = new CompressedBLP(a.size);
+        for (int k = 0; k < r.containers.length; k++)
+            r.containers[k] = Container.xor(a.containers[k], b.container(k));
+        r.clipLast();
+        return r;
+    }
+
+    /**
+     * Returns a new list with the bits of {@code a} that are not set in {@code b}, with the size of {@code a}.
+     */
+    public static CompressedBLP andNot(CompressedBLP a, CompressedBLP b) {
+        CompressedBLP r = new CompressedBLP(a.size);
+        for (int k = 0; k < r.containers.length; k++)
+            r.containers[k] = Container.andNot(a.containers[k], b.container(k));
+        return r;
+    }
+
+    /**
+     * Container of chunk {@code k}, or null if beyond this list.
+     */
+    Container container(int k) {
+        return k < chunkCount(size) ? containers[k] : null;
+    }
+
+    /**
+     * Clears any bits at or beyond {@code size} in the last chunk.
+     */
+    void clipLast() {
+        int k = chunkCount(size) - 1;
+        int used = size & (CHUNK_SIZE - 1);
+        if (k < 0 || used == 0 || containers[k] == null || containers[k].nextSetBit(used) < 0)
+            return;
+
+        BitmapContainer b = containers[k].toBitmap();
+        int w = used >>> 6;
+        if ((used & (BLP.MAX_SIZE - 1)) != 0)
+            b.words[w++] &= -1L >>> -used;
+        Arrays.fill(b.words, w, BITMAP_WORDS, 0L);
+        b.card = b.computeCardinality();
+        containers[k] = b.normalize();
+    }
+
+    @Override
+    public void clear() {
+        modCount++;
+        containers = new Container[0];
+        size = 0;
+    }
+
+    @Override
+    public BooleanIterator iterator() {
+        return new CompressedIterator();
+    }
+
+    /**
+     * Jumps between set bits with nextSetBit, so clear chunks are never read.
+     */
+    class CompressedIterator implements BooleanIterator {
+        // tracking current index in list
+        int i;
+        // next set bit at or after i, or -1
+        int nextSet = nextSetBit(0);
+
+        @Override
+        public boolean hasNext() {
+            return i < size;
+        }
+
+        @Override
+        public boolean nextBoolean() {
+            if (i >= size) throw new NoSuchElementException();
+
+            boolean b = i == nextSet;
+            i++;
+            if (b)
+                nextSet = nextSetBit(i);
+            return b;
+        }
+    }
+
+    /**
+     * Returns the smallest container for the bits of {@code b}.
+     */
+    static Container best(BitmapContainer b) {
+        if (b.card == 0)
+            return null;
+        int runs = b.countRuns();
+        int runBytes = 4 * runs;
+        int arrayBytes = 2 * b.card;
+        int bitmapBytes = 8 * BITMAP_WORDS;
+
+        if (runBytes < arrayBytes && runBytes < bitmapBytes)
+            return b.toRuns(runs);
+        if (b.card <= ARRAY_MAX)
+            return b.toArray();
+        return b;
+    }
+
+    /**
+     * Set bits of one chunk. Mutators may return a different container,
+     * which replaces this one.
+     */
+    abstract static class Container {
+        abstract boolean contains(int x);
+
+        abstract Container add(int x);
+
+        abstract Container remove(int x);
+
+        abstract int cardinality();
+
+        /**
+         * Position of the first set bit at or after {@code from}, or -1.
+         */
+        abstract int nextSetBit(int from);
+
+        /**
+         * Returns a new bitmap container with the same bits.
+         */
+        abstract BitmapContainer toBitmap();
+
+        abstract Container copy();
+
+        abstract long sizeInBytes();
+
+        /**
+         * Returns null if empty, else this container.
+         */
+        Container normalize() {
+            return cardinality() == 0 ? null : this;
+        }
+
+        static Container and(Container a, Container b) {
+            if (a == null || b == null)
+                return null;
+            if (a instanceof ArrayContainer && b instanceof ArrayContainer)
+                return ((ArrayContainer) a).merge((ArrayContainer) b, true, false).normalize();
+            if (a instanceof ArrayContainer)
+                return ((ArrayContainer) a).filter(b, true).normalize();
+            if (b instanceof ArrayContainer)
+                return ((ArrayContainer) b).filter(a, true).normalize();
+
+            BitmapContainer r = a.toBitmap();
+            long[] other = b instanceof BitmapContainer ? ((BitmapContainer) b).words : b.toBitmap().words;
+            for (int i = 0; i < BITMAP_WORDS; i++)
+                r.words[i] &= other[i];
+            r.card = r.computeCardinality();
+            return r.normalize();
+        }
+
+        static Container or(Container a, Container b) {
+            if (a == null)
+                return b == null ? null : b.copy();
+            if (b == null)
+                return a.copy();
+            if (a instanceof ArrayContainer && b instanceof ArrayContainer)
+                return ((ArrayContainer) a).merge((ArrayContainer) b, true, true);
+
+            BitmapContainer r = a.toBitmap();
+            if (b instanceof ArrayContainer) {
+                ArrayContainer ab = (ArrayContainer) b;
+                for (int i = 0; i < ab.card; i++)
+                    r.words[ab.values[i] >>> 6] |= 1L << ab.values[i];
+            } else {
+                long[] other = b instanceof BitmapContainer ? ((BitmapContainer) b).words : b.toBitmap().words;
+                for (int i = 0; i < BITMAP_WORDS; i++)
+                    r.words[i] |= other[i];
+            }
+            r.card = r.computeCardinality();
+            return r.normalize();
+        }
+
+        static Container xor(Container a, Container b) {
+            if (a == null)
+                return b == null ? null : b.copy();
+            if (b == null)
+                return a.copy();
+            if (a instanceof ArrayContainer && b instanceof ArrayContainer)
+                return ((ArrayContainer) a).merge((ArrayContainer) b, false, true).normalize();
+
+            BitmapContainer r = a.toBitmap();
+            if (b instanceof ArrayContainer) {
+                ArrayContainer ab = (ArrayContainer) b;
+                for (int i = 0; i < ab.card; i++)
+                    r.words[ab.values[i] >>> 6] ^= 1L << ab.values[i];
+            } else {
+                long[] other = b instanceof BitmapContainer ? ((BitmapContainer) b).words : b.toBitmap().words;
+                for (int i = 0; i < BITMAP_WORDS; i++)
+                    r.words[i] ^= other[i];
+            }
+            r.card = r.computeCardinality();
+            return r.normalize();
+        }
+
+        static Container andNot(Container a, Container b) {
+            if (a == null)
+                return null;
+            if (b == null)
+                return a.copy();
+            if (a instanceof ArrayContainer)
+                return ((ArrayContainer) a).filter(b, false).normalize();
+
+            BitmapContainer r = a.toBitmap();
+            if (b instanceof ArrayContainer) {
+                ArrayContainer ab = (ArrayContainer) b;
+                for (int i = 0; i < ab.card; i++)
+                    r.words[ab.values[i] >>> 6] &= ~(1L << ab.values[i]);
+            } else {
+                long[] other = b instanceof BitmapContainer ? ((BitmapContainer) b).words : b.toBitmap().words;
+                for (int i = 0; i < BITMAP_WORDS; i++)
+                    r.words[i] &= ~other[i];
+            }
+            r.card = r.computeCardinality();
+            return r.normalize();
+        }
+    }
+
+    /**
+     * Sorted positions of set bits.
+     */
+    static final class ArrayContainer extends Container {
+        char[] values;
+        int card;
+
+        ArrayContainer() {
+            this(new char[4], 0);
+        }
+
+        ArrayContainer(char[] values, int card) {
+            this.values = values;
+            this.card = card;
+        }
+
+        @Override
+        boolean contains(int x) {
+            return Arrays.binarySearch(values, 0, card, (char) x) >= 0;
+        }
+
+        @Override
+        Container add(int x) {
+            int i = Arrays.binarySearch(values, 0, card, (char) x);
+            if (i >= 0)
+                return this;
+            if (card == ARRAY_MAX)
+                return toBitmap().add(x);
+
+            i = -i - 1;
+            if (card == values.length)
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX, card * 2));
+            System.arraycopy(values, i, values, i + 1, card - i);
+            values[i] = (char) x;
+            card++;
+            return this;
+        }
+
+        @Override
+        Container remove(int x) {
+            int i = Arrays.binarySearch(values, 0, card, (char) x);
+            if (i < 0)
+                return this;
+
+            System.arraycopy(values, i + 1, values, i, card - i - 1);
+            card--;
+            return this;
+        }
+
+        @Override
+        int cardinality() {
+            return card;
+        }
+
+        @Override
+        int nextSetBit(int from) {
+            int i = Arrays.binarySearch(values, 0, card, (char) from);
+            if (i < 0)
+                i = -i - 1;
+            return i < card ? values[i] : -1;
+        }
+
+        @Override
+        BitmapContainer toBitmap() {
+            BitmapContainer b = new BitmapContainer();
+            for (int i = 0; i < card; i++)
+                b.words[values[i] >>> 6] |= 1L << values[i];
+            b.card = card;
+            return b;
+        }
+
+        @Override
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, Math.max(4, card)), card);
+        }
+
+        @Override
+        long sizeInBytes() {
+            return 16 + 2L * values.length;
+        }
+
+        /**
+         * Merges two sorted arrays, keeping values in both if {@code both},
+         * and values in only one if {@code one}.
+         */
+        Container merge(ArrayContainer other, boolean both, boolean one) {
+            char[] r = new char[one ? card + other.card : Math.min(card, other.card)];
+            int n = 0;
+            int i = 0;
+            int j = 0;
+            while (i < card && j < other.card) {
+                if (values[i] < other.values[j]) {
+                    if (one) r[n++] = values[i];
+                    i++;
+                } else if (values[i] > other.values[j]) {
+                    if (one) r[n++] = other.values[j];
+                    j++;
+                } else {
+                    if (both) r[n++] = values[i];
+                    i++;
+                    j++;
+                }
+            }
+            if (one) {
+                for (; i < card; i++) r[n++] = values[i];
+                for (; j < other.card; j++) r[n++] = other.values[j];
+            }
+
+            ArrayContainer a = new ArrayContainer(r, n);
+            if (n <= ARRAY_MAX)
+                return a;
+            return a.toBitmap();
+        }
+
+        /**
+         * Keeps the values that are (or are not, if {@code !keep}) contained in {@code other}.
+         */
+        ArrayContainer filter(Container other, boolean keep) {
+            char[] r = new char[card];
+            int n = 0;
+            for (int i = 0; i < card; i++)
+                if (other.contains(values[i]) == keep)
+                    r[n++] = values[i];
+            return new ArrayContainer(r, n);
+        }
+    }
+
+    /**
+     * 2^16 bits in BLP's word layout.
+     */
+    static final class BitmapContainer extends Container {
+        final long[] words = new long[BITMAP_WORDS];
+        int card;
+
+        @Override
+        boolean contains(int x) {
+            return (words[x >>> 6] & (1L << x)) != 0;
+        }
+
+        @Override
+        Container add(int x) {
+            if ((words[x >>> 6] & (1L << x)) == 0) {
+                words[x >>> 6] |= 1L << x;
+                card++;
+            }
+            return this;
+        }
+
+        @Override
+        Container remove(int x) {
+            if ((words[x >>> 6] & (1L << x)) != 0) {
+                words[x >>> 6] &= ~(1L << x);
+                card--;
+            }
+            return this;
+        }
+
+        /**
+         * Also converts to an array once small enough.
+         */
+        @Override
+        Container normalize() {
+            if (card == 0)
+                return null;
+            return card <= ARRAY_MAX ? toArray() : this;
+        }
+
+        @Override
+        int cardinality() {
+            return card;
+        }
+
+        int computeCardinality() {
+            int count = 0;
+            for (long w : words)
+                count += Long.bitCount(w);
+            return count;
+        }
+
+        @Override
+        int nextSetBit(int from) {
+            int w = from >>> 6;
+            long word = words[w] & (-1L << from);
+            while (word == 0) {
+                if (++w == BITMAP_WORDS)
+                    return -1;
+                word = words[w];
+            }
+            return w * BLP.MAX_SIZE + Long.numberOfTrailingZeros(word);
+        }
+
+        @Override
+        BitmapContainer toBitmap() {
+            BitmapContainer b = new BitmapContainer();
+            System.arraycopy(words, 0, b.words, 0, BITMAP_WORDS);
+            b.card = card;
+            return b;
+        }
+
+        @Override
+        Container copy() {
+            return toBitmap();
+        }
+
+        @Override
+        long sizeInBytes() {
+            return 16 + 8L * BITMAP_WORDS;
+        }
+
+        ArrayContainer toArray() {
+            char[] r = new char[Math.max(4, card)];
+            int n = 0;
+            for (int w = 0; w < BITMAP_WORDS; w++)
+                for (long word = words[w]; word != 0; word &= word - 1)
+                    r[n++] = (char) (w * BLP.MAX_SIZE + Long.numberOfTrailingZeros(word));
+            return new ArrayContainer(r, n);
+        }
+
+        /**
+         * Number of runs of set bits, counted by their first bits.
+         */
+        int countRuns() {
+            int runs = 0;
+            long carry = 0;
+            for (long w : words) {
+                runs += Long.bitCount(w & ~(w << 1 | carry));
+                carry = w >>> 63;
+            }
+            return runs;
+        }
+
+        RunContainer toRuns(int runs) {
+            char[] r = new char[2 * runs];
+            int n = 0;
+            int start = nextSetBit(0);
+            while (start >= 0) {
+                int end = nextClearBit(start);
+                r[2 * n] = (char) start;
+                r[2 * n + 1] = (char) (end - start - 1);
+                n++;
+                start = end < CHUNK_SIZE ? nextSetBit(end) : -1;
+            }
+            return new RunContainer(r, n, card);
+        }
+
+        int nextClearBit(int from) {
+            int w = from >>> 6;
+            long word = ~words[w] & (-1L << from);
+            while (word == 0) {
+                if (++w == BITMAP_WORDS)
+                    return CHUNK_SIZE;
+                word = ~words[w];
+            }
+            return w * BLP.MAX_SIZE + Long.numberOfTrailingZeros(word);
+        }
+    }
+
+    /**
+     * Sorted, non-adjacent runs of set bits, as (start, length - 1) pairs.
+     * Read-only: a modified run container becomes an array or bitmap.
+     */
+    static final class RunContainer extends Container {
+        final char[] runs;
+        final int nRuns;
+        final int card;
+
+        RunContainer(char[] runs, int nRuns, int card) {
+            this.runs = runs;
+            this.nRuns = nRuns;
+            this.card = card;
+        }
+
+        /**
+         * Index of the last run starting at or before {@code x}, or -1.
+         */
+        int runAt(int x) {
+            int lo = 0;
+            int hi = nRuns - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                if (runs[2 * mid] <= x)
+                    lo = mid + 1;
+                else
+                    hi = mid - 1;
+            }
+            return hi;
+        }
+
+        @Override
+        boolean contains(int x) {
+            int r = runAt(x);
+            return r >= 0 && x <= runs[2 * r] + runs[2 * r + 1];
+        }
+
+        @Override
+        Container add(int x) {
+            if (contains(x))
+                return this;
+            Container c = card < ARRAY_MAX ? toBitmap().toArray() : toBitmap();
+            return c.add(x);
+        }
+
+        @Override
+        Container remove(int x) {
+            if (!contains(x))
+                return this;
+            return toBitmap().remove(x).normalize();
+        }
+
+        @Override
+        int cardinality() {
+            return card;
+        }
+
+        @Override
+        int nextSetBit(int from) {
+            int r = runAt(from);
+            if (r >= 0 && from <= runs[2 * r] + runs[2 * r + 1])
+                return from;
+            return r + 1 < nRuns ? runs[2 * (r + 1)] : -1;
+        }
+
+        @Override
+        BitmapContainer toBitmap() {
+            BitmapContainer b = new BitmapContainer();
+            for (int r = 0; r < nRuns; r++) {
+                int from = runs[2 * r];
+                int to = from + runs[2 * r + 1] + 1;
+                int fw = from >>> 6;
+                int lw = (to - 1) >>> 6;
+                if (fw == lw) {
+                    b.words[fw] |= (-1L << from) & (-1L >>> -to);
+                } else {
+                    b.words[fw] |= -1L << from;
+                    Arrays.fill(b.words, fw + 1, lw, -1L);
+                    b.words[lw] |= -1L >>> -to;
+                }
+            }
+            b.card = card;
+            return b;
+        }
+
+        @Override
+        Container copy() {
+            // Immutable, so safe to share
+            return this;
+        }
+
+        @Override
+        long sizeInBytes() {
+            return 16 + 2L * runs.length;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package BinaryListPlus;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+public class CompressedBLPTest {
+    /**
+     * Sparse bits, a dense chunk and a run-heavy chunk.
+     */
+    private BLP sample(int seed, int size) {
+        Random random = new Random(seed);
+        BLP b = new BLP(new boolean[size]);
+        for (int i = 0; i < 100; i++)
+            b.setBit(random.nextInt(size), true);
+        for (int i = 65_536; i < 131_072; i++)
+            if (random.nextInt(3) == 0)
+                b.setBit(i, true);
+        b.set(140_000 + seed, 180_000, true);
+        return b;
+    }
+
+    @Test
+    public void testContainers() {
+        BLP flat = sample(1, 250_000);
+        CompressedBLP c = new CompressedBLP(flat);
+
+        assertTrue(c.containers[0] instanceof CompressedBLP.ArrayContainer);
+        assertTrue(c.containers[1] instanceof CompressedBLP.BitmapContainer);
+        assertTrue(c.containers[2] instanceof CompressedBLP.RunContainer);
+        assertEquals(flat, c.toBLP());
+        assertEquals(flat.cardinality(), c.cardinality());
+        assertArrayEquals(flat.setBits().toArray(), flatSetBits(c));
+        assertEquals(flat, c);
+    }
+
+    private int[] flatSetBits(CompressedBLP c) {
+        return java.util.stream.IntStream.iterate(c.nextSetBit(0), i -> i >= 0, i -> c.nextSetBit(i + 1)).toArray();
+    }
+
+    @Test
+    public void testSetAndConvert() {
+        CompressedBLP c = new CompressedBLP(70_000);
+        for (int i = 0; i < 5000; i++)
+            c.setBit(i * 3, true);
+        // Array grew past ARRAY_MAX
+        assertTrue(c.containers[0] instanceof CompressedBLP.BitmapContainer);
+        for (int i = 0; i < 4000; i++)
+            c.setBit(i * 3, false);
+        assertTrue(c.containers[0] instanceof CompressedBLP.ArrayContainer);
+        assertEquals(1000, c.cardinality());
+
+        c.addBit(true);
+        assertEquals(70_001, c.size());
+        assertTrue(c.getBit(70_000));
+    }
+
+    @Test
+    public void testBulk() {
+        BLP a = sample(2, 200_000);
+        BLP b = sample(3, 250_000);
+        CompressedBLP ca = new CompressedBLP(a);
+        CompressedBLP cb = new CompressedBLP(b);
+
+        assertEquals(BLP.and(a, b), CompressedBLP.and(ca, cb).toBLP());
+        assertEquals(BLP.or(a, b), CompressedBLP.or(ca, cb).toBLP());
+        assertEquals(BLP.xor(a, b), CompressedBLP.xor(ca, cb).toBLP());
+        assertEquals(BLP.andNot(a, b), CompressedBLP.andNot(ca, cb).toBLP());
+
+        ca.xor(cb);
+        a.xor(b);
+        assertEquals(a, ca.toBLP());
+    }
+
+    @Test
+    public void testSparseMemory() {
+        CompressedBLP c = new CompressedBLP(100_000_000);
+        for (int i = 0; i < 1000; i++)
+            c.setBit(i * 99_991, true);
+        // A flat BLP would need 12.5 MB
+        assertTrue(c.sizeInBytes() < 100_000);
+    }
+}
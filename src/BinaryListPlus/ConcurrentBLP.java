@@ -0,0 +1,172 @@
+package BinaryListPlus;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.AbstractList;
+import java.util.Arrays;
+
+/**
+ * A fixed-size bit vector that many threads can update at once, without locks.
+ * Words are a long[] in the word layout of BLP, accessed through a VarHandle,
+ * and every update is a single atomic operation or CAS loop on one word, so threads only
+ * contend when they touch the same 64 bits.
+ * Reads of more than one bit, such as {@link #cardinality()}, are not atomic snapshots.
+ */
+public class ConcurrentBLP extends AbstractList<Boolean> {
+    // Volatile and atomic access to elements of a long[]
+    static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    final long[] words;
+    // Number of elements in the list, fixed at construction
+    final int size;
+
+    /**
+     * Construct with {@code size} clear bits.
+     * @param size number of bits, fixed for the life of the list
+     */
+    public ConcurrentBLP(int size) {
+        if (size < 0) throw new IllegalArgumentException();
+        this.words = new long[BLP.wordCount(size)];
+        this.size = size;
+    }
+
+    /**
+     * Construct with a copy of the bits and size of {@code b}.
+     */
+    public ConcurrentBLP(BLP b) {
+        this.words = Arrays.copyOf(b.words, BLP.wordCount(b.size));
+        this.size = b.size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    long word(int w) {
+        return (long) WORDS.getVolatile(words, w);
+    }
+
+    void checkIndex(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException();
+    }
+
+    public Boolean get(int index) {
+        return getBit(index);
+    }
+
+    /**
+     * Returns the bit at the specified position, without boxing.
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         ({@code index < 0 || index >= size()})
+     */
+    public boolean getBit(int index) {
+        checkIndex(index);
+
+        return (word(index >>> 6) >>> index & 1) != 0;
+    }
+
+    public Boolean set(int index, Boolean element) {
+        return element ? getAndSet(index) : getAndClear(index);
+    }
+
+    /**
+     * Atomically sets the bit at the specified position.
+     * @return the bit previously at the specified position
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         ({@code index < 0 || index >= size()})
+     */
+    public boolean getAndSet(int index) {
+        checkIndex(index);
+
+        long mask = 1L << index;
+        return ((long) WORDS.getAndBitwiseOr(words, index >>> 6, mask) & mask) != 0;
+    }
+
+    /**
+     * Atomically clears the bit at the specified position.
+     * @return the bit previously at the specified position
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         ({@code index < 0 || index >= size()})
+     */
+    public boolean getAndClear(int index) {
+        checkIndex(index);
+
+        long mask = 1L << index;
+        return ((long) WORDS.getAndBitwiseAnd(words, index >>> 6, ~mask) & mask) != 0;
+    }
+
+    /**
+     * Atomically sets the bit at the specified position to {@code update}, if it is currently {@code expect}.
+     * Only fails if the bit itself differs, not when other bits of its word change.
+     * @return {@code true} if successful
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         ({@code index < 0 || index >= size()})
+     */
+    public boolean compareAndSet(int index, boolean expect, boolean update) {
+        checkIndex(index);
+
+        int w = index >>> 6;
+        long mask = 1L << index;
+        while (true) {
+            long word = word(w);
+            if (((word & mask) != 0) != expect)
+                return false;
+            if (expect == update || WORDS.compareAndSet(words, w, word, word ^ mask))
+                return true;
+        }
+    }
+
+    /**
+     * Sets the bit at the specified position if it is clear, for claiming an item exactly once.
+     * Reads first, so a bit that is already set costs no write and no cache line transfer.
+     * @return {@code true} if this call set the bit
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         ({@code index < 0 || index >= size()})
+     */
+    public boolean setIfClear(int index) {
+        checkIndex(index);
+
+        long mask = 1L << index;
+        int w = index >>> 6;
+        if ((word(w) & mask) != 0)
+            return false;
+        return ((long) WORDS.getAndBitwiseOr(words, w, mask) & mask) == 0;
+    }
+
+    /**
+     * Atomically sets, one word at a time, every bit that is set in {@code snapshot}.
+     * Words that would not change are not written. Bits of {@code snapshot}
+     * beyond the size of this list are ignored.
+     */
+    public void or(BLP snapshot) {
+        int common = Math.min(words.length, BLP.wordCount(snapshot.size));
+        long last = (size & (BLP.MAX_SIZE - 1)) == 0 ? -1L : -1L >>> -size;
+        for (int i = 0; i < common; i++) {
+            long word = snapshot.words[i];
+            if (i == words.length - 1)
+                word &= last;
+            if (word != 0 && (word(i) & word) != word)
+                WORDS.getAndBitwiseOr(words, i, word);
+        }
+    }
+
+    /**
+     * Returns the number of set bits. Not atomic across words.
+     */
+    public int cardinality() {
+        int count = 0;
+        for (int i = 0, n = words.length; i < n; i++)
+            count += Long.bitCount(word(i));
+        return count;
+    }
+
+    /**
+     * Returns a BLP with the current bits, read one word at a time. Not atomic across words.
+     */
+    public BLP snapshot() {
+        long[] r = new long[Math.max(1, words.length)];
+        for (int i = 0, n = words.length; i < n; i++)
+            r[i] = word(i);
+        return new BLP(r, size);
+    }
+}
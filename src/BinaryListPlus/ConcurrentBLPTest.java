@@ -0,0 +1,53 @@
+package BinaryListPlus;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ConcurrentBLPTest {
+    @Test
+    public void testBitOperations() {
+        ConcurrentBLP b = new ConcurrentBLP(100);
+        assertFalse(b.getAndSet(70));
+        assertTrue(b.getAndSet(70));
+        assertFalse(b.setIfClear(70));
+        assertTrue(b.setIfClear(3));
+        assertFalse(b.compareAndSet(3, false, true));
+        assertTrue(b.compareAndSet(3, true, false));
+        assertFalse(b.getBit(3));
+        assertTrue(b.getAndClear(70));
+        assertEquals(0, b.cardinality());
+
+        BLP snapshot = new BLP(0, 130);
+        snapshot.set(60, 130, true);
+        b.or(snapshot);
+        assertEquals(40, b.cardinality());
+        assertEquals(b, b.snapshot());
+    }
+
+    @Test
+    public void testClaimOnce() throws InterruptedException {
+        int n = 100_000;
+        ConcurrentBLP b = new ConcurrentBLP(n);
+        AtomicInteger claimed = new AtomicInteger();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < n; i++)
+                    if (b.setIfClear(i))
+                        claimed.incrementAndGet();
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads)
+            thread.join();
+
+        assertEquals(n, claimed.get());
+        assertEquals(n, b.cardinality());
+    }
+}
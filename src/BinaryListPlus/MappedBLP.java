@@ -0,0 +1,182 @@
+package BinaryListPlus;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * An OffHeapBLP whose words are the pages of a memory-mapped file, so opening
+ * a stored list costs no parsing or copying.
+ *
+ * The file is a 16 byte header followed by the raw words, all little-endian:
+ * <pre>
+ *  0  int   magic, "BLPF"
+ *  4  short version
+ *  6  byte  word order, 0 for little-endian
+ *  7  byte  reserved, 0
+ *  8  long  size in bits
+ * 16  long[] words, in the word layout of BLP
+ * </pre>
+ * The size in the header is only updated by {@link #force()} and {@link #close()},
+ * so it is only durable after {@code force()}. After a crash the file may hold
+ * set bits beyond the stored size. Only the words in use are mapped, so opening
+ * stays instant, and words past them are cleared as a writable list grows into them.
+ *
+ * In {@code PRIVATE} mode edits are copy-on-write and never reach the file.
+ * Growing such a list copies its words into a direct buffer, as OffHeapBLP
+ * does, since a new private mapping would lose the edits and extend the file.
+ * @see BLP#map(Path, FileChannel.MapMode)
+ * @see BLP#store(Path)
+ */
+public class MappedBLP extends OffHeapBLP {
+    static final int MAGIC = 0x46504C42;
+    static final short VERSION = 1;
+    static final byte LITTLE_ENDIAN = 0;
+    static final int HEADER = 16;
+
+    final FileChannel channel;
+    final FileChannel.MapMode mode;
+    final MappedByteBuffer header;
+    // Words in the file when opened, past the mapping they may hold stale bits
+    final long fileWords;
+
+    MappedBLP(FileChannel channel, FileChannel.MapMode mode, MappedByteBuffer header, MappedByteBuffer words, int size, long fileWords) {
+        super(words, size);
+        this.channel = channel;
+        this.mode = mode;
+        this.header = header;
+        this.fileWords = fileWords;
+    }
+
+    /**
+     * Maps the list stored at {@code path}. With {@code READ_WRITE}, a missing or empty file becomes an empty list.
+     * @throws IOException if the file cannot be mapped, or its header is not a supported BLP header
+     */
+    static MappedBLP open(Path path, FileChannel.MapMode mode) throws IOException {
+        FileChannel channel;
+        if (mode == FileChannel.MapMode.READ_ONLY)
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+        else if (mode == FileChannel.MapMode.PRIVATE)
+            // Private mappings need a writable channel, but must never change the file
+            channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        else
+            channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+        try {
+            if (channel.size() == 0 && mode == FileChannel.MapMode.READ_WRITE)
+                channel.write(header(0), 0);
+
+            if (channel.size() < HEADER) throw new IOException("Not a BLP file");
+            MappedByteBuffer header = channel.map(mode, 0, HEADER);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt(0) != MAGIC) throw new IOException("Not a BLP file");
+            if (header.getShort(4) != VERSION) throw new IOException("Unsupported BLP version " + header.getShort(4));
+            if (header.get(6) != LITTLE_ENDIAN) throw new IOException("Unsupported word order " + header.get(6));
+
+            long size = header.getLong(8);
+            if (size < 0 || size > Integer.MAX_VALUE) throw new IOException("BLP size out of range: " + size);
+            long words = (channel.size() - HEADER) / Long.BYTES;
+            if (words < BLP.wordCount((int) size)) throw new IOException("BLP file truncated");
+
+            // Map only the words in use, and at least one word so that a writable
+            // empty list has somewhere to grow from
+            int mapped = BLP.wordCount((int) size);
+            if (mode == FileChannel.MapMode.READ_WRITE)
+                mapped = Math.max(1, mapped);
+            MappedByteBuffer buffer = channel.map(mode, HEADER, (long) mapped * Long.BYTES);
+            MappedBLP m = new MappedBLP(channel, mode, header, buffer, (int) size, words);
+            if (mode != FileChannel.MapMode.READ_ONLY)
+                m.clearStale(0);
+            return m;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a header for a list of {@code size} bits, ready to write.
+     */
+    static ByteBuffer header(int size) {
+        ByteBuffer b = ByteBuffer.allocate(HEADER).order(ByteOrder.LITTLE_ENDIAN);
+        b.putInt(MAGIC).putShort(VERSION).put(LITTLE_ENDIAN).put((byte) 0).putLong(size);
+        return b.flip();
+    }
+
+    /**
+     * Clears the bits at or beyond {@code size} in the last word in use, and in mapped
+     * words from {@code from} on, which a crash before {@link #force()} can leave set.
+     * Words are only written if set, so clean pages stay clean.
+     */
+    void clearStale(int from) {
+        clearUnused();
+        for (int i = Math.max(from, BLP.wordCount(size)), n = capacityWords(); i < n; i++)
+            if (word(i) != 0)
+                setWord(i, 0L);
+    }
+
+    /**
+     * Grows the file and maps the larger region, if necessary, to hold at least {@code bits} bits.
+     * Grows by half of the current capacity, as BLP does. In {@code PRIVATE} mode
+     * the words are copied to a direct buffer instead, leaving the file as it is.
+     */
+    @Override
+    void ensureCapacity(int bits) {
+        if (mode == FileChannel.MapMode.PRIVATE) {
+            super.ensureCapacity(bits);
+            return;
+        }
+        int needed = BLP.wordCount(bits);
+        int capacity = capacityWords();
+        if (needed <= capacity)
+            return;
+
+        long words = Math.min(Integer.MAX_VALUE / Long.BYTES, Math.max(needed, capacity + (capacity >> 1)));
+        try {
+            // Mapping past the end of a writable file extends it
+            buffer = channel.map(mode, HEADER, words * Long.BYTES);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        // Newly mapped words that were already in the file may hold stale bits
+        if (capacity < fileWords)
+            clearStale(capacity);
+    }
+
+    /**
+     * Writes the size to the header, then forces the header and words to the storage device.
+     * Does nothing in {@code READ_ONLY} and {@code PRIVATE} modes, where nothing reaches the file.
+     * @see MappedByteBuffer#force()
+     */
+    public void force() {
+        buffer();
+        if (mode != FileChannel.MapMode.READ_WRITE)
+            return;
+        header.putLong(8, size);
+        ((MappedByteBuffer) buffer).force();
+        header.force();
+    }
+
+    /**
+     * Writes the size to the header and closes the file. Changes reach the
+     * file as the pages are written back, or at once with {@link #force()}.
+     * @throws UncheckedIOException if the file cannot be closed
+     */
+    @Override
+    public void close() {
+        if (buffer == null)
+            return;
+        if (mode == FileChannel.MapMode.READ_WRITE)
+            header.putLong(8, size);
+        super.close();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package BinaryListPlus;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+public class MappedBLPTest {
+    @Test
+    public void testStoreAndMap() throws IOException {
+        Path path = Files.createTempFile("blp", ".bin");
+        try {
+            Random random = new Random(42);
+            BLP expected = new BLP();
+            for (int i = 0; i < 100_000; i++)
+                expected.addBit(random.nextInt(3) == 0);
+            expected.store(path);
+            assertEquals(16 + BLP.wordCount(expected.size()) * 8, Files.size(path));
+
+            try (MappedBLP m = BLP.map(path, FileChannel.MapMode.READ_ONLY)) {
+                assertEquals(expected.size(), m.size());
+                assertEquals(expected, m.toBLP());
+            }
+
+            // Edits and growth reach the file
+            try (MappedBLP m = BLP.map(path, FileChannel.MapMode.READ_WRITE)) {
+                m.flip(7);
+                expected.flip(7);
+                for (int i = 0; i < 1000; i++) {
+                    m.addBit(true);
+                    expected.addBit(true);
+                }
+                m.force();
+            }
+            try (MappedBLP m = BLP.map(path, FileChannel.MapMode.READ_ONLY)) {
+                assertEquals(expected, m.toBLP());
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void testCreateAndReject() throws IOException {
+        Path path = Files.createTempFile("blp", ".bin");
+        try {
+            try (MappedBLP m = BLP.map(path, FileChannel.MapMode.READ_WRITE)) {
+                assertTrue(m.isEmpty());
+                m.addBit(true);
+                m.addBit(false);
+            }
+            try (MappedBLP m = BLP.map(path, FileChannel.MapMode.READ_ONLY)) {
+                assertEquals(new BLP("01"), m.toBLP());
+            }
+
+            Files.write(path, new byte[32]);
+            try {
+                BLP.map(path, FileChannel.MapMode.READ_ONLY);
+                fail();
+            } catch (IOException e) {
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void testPrivateAndForce() throws IOException {
+        Path path = Files.createTempFile("blp", ".bin");
+        try {
+            BLP expected = new BLP();
+            for (int i = 0; i < 100; i++)
+                expected.addBit(i % 3 == 0);
+            expected.store(path);
+            byte[] stored = Files.readAllBytes(path);
+
+            try (MappedBLP m = BLP.map(path, FileChannel.MapMode.READ_ONLY)) {
+                // Nothing to write, so nothing to fail
+                m.force();
+                assertEquals(expected, m.toBLP());
+            }
+
+            // Edits made before growing survive it, and the file never changes
+            try (MappedBLP m = BLP.map(path, FileChannel.MapMode.PRIVATE)) {
+                m.flip(1);
+                expected.flip(1);
+                for (int i = 0; i < 1000; i++) {
+                    m.addBit(true);
+                    expected.addBit(true);
+                }
+                m.force();
+                assertEquals(expected, m.toBLP());
+            }
+            assertArrayEquals(stored, Files.readAllBytes(path));
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void testClearsTailOnOpen() throws IOException {
+        Path path = Files.createTempFile("blp", ".bin");
+        try {
+            BLP ones = new BLP();
+            for (int i = 0; i < 130; i++)
+                ones.addBit(true);
+            ones.store(path);
+            // As if the list shrank to 3 bits and crashed before force()
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                channel.write(MappedBLP.header(3), 0);
+            }
+
+            try (MappedBLP m = BLP.map(path, FileChannel.MapMode.READ_WRITE)) {
+                assertEquals(3, m.cardinality());
+                m.addBit(false);
+                assertEquals(-1, m.nextSetBit(3));
+                // Growing maps the stale words, which must read as clear
+                for (int i = 0; i < 200; i++)
+                    m.addBit(false);
+                assertEquals(-1, m.nextSetBit(3));
+                assertEquals(3, m.cardinality());
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+}
@@ -1,100 +1,129 @@
 package BinaryListPlus;
 
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
-import java.util.ListIterator;
 import java.util.NoSuchElementException;
-
-import BinaryList.BinaryList;
-
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+import java.util.function.LongPredicate;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+import BinaryList.Varint;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.io.OutputStream;
 import java.math.BigInteger;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collection;
-import java.util.Iterator;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 
 /**
  * Stores an array of numbers, restricted to a pre-determined number of bits.
- * Uses a {@code List<Integer>} to store bits consecutively
+ * Numbers are packed consecutively into a growable {@code long[]}: element {@code i}
+ * takes bits [i * bits, (i + 1) * bits), so an element crossing a word boundary is
+ * read with two loads. Numbers are unsigned; the Integer methods read and
+ * write the low 32 bits, and the long methods hold any width up to 64.
+ * Bits at or beyond {@code size * bits} are always kept clear.
  */
-public class NumberList implements List<Integer> {
-    // main data structure
-    List<Integer> list;
+public class NumberList extends AbstractList<Integer> implements Externalizable {
+    // The streamed form is stable across versions
+    private static final long serialVersionUID = 1L;
+
+    // Words that store the numbers, packed consecutively
+    long[] words;
     // no. of 'numbers' stored
     int size;
     // pre-determined number of bits to store per number
-    // not to be changed after construction
+    // only changed by widen(int)
     int bits;
-    
-    // Max bits stored in each integer
-    public static final int MAX_SIZE = Integer.BYTES * 8;
+    // Low {@code bits} bits set
+    long mask;
+    // Widen instead of throwing when a number does not fit
+    boolean autoWiden;
 
+    // Max bits stored per number, and in each word
+    public static final int MAX_SIZE = Long.BYTES * 8;
+    // Most words an array can hold on common VMs, as for ArrayList
+    static final int MAX_WORDS = Integer.MAX_VALUE - 8;
 
-    /**
-     * Construct with {@code list} and {@code size} set to 0.
-     */
-    public NumberList() {
-        this(0);
-    }
 
     /**
-     * Construct with provided {@code list}, automatically calculates {@code size} and bits.
-     * @param list initial value of the list
+     * Construct an empty list of 32 bit numbers.
      */
-    public NumberList(int list) {
-        this(list, 0);
-
-        for (int copy = list; copy > 0; copy >>= 1)
-            size++;
+    public NumberList() {
+        this(Integer.SIZE);
     }
 
     /**
-     * Construct with provided {@code list} and {@code size}. Allows list to exceed provided size.
-     * @param list initial value of the list
-     * @param size number of bits to store for each element
+     * Construct an empty list of numbers of {@code bits} bits.
+     * @param bits bits stored per number, from 1 to 64
+     * @throws IllegalArgumentException if {@code bits} is out of range
      */
-    public NumberList(int list, int size) {
-        this.list = new ArrayList<Integer>();
-        this.list.add(list);
-        this.size = size;
-        this.bits = size;
+    public NumberList(int bits) {
+        this(new long[1], 0, bits);
     }
 
-    // public NumberList(int list, int size, int bits) {
-    //     this.list = new ArrayList<Integer>();
-    //     this.list.add(list);
-    //     this.size = size;
-    //     this.bits = bits;
-    // }
-
     /**
      * For cloning
-     * @param l list to be adopted
+     * @param words words to be adopted
      * @param size
+     * @param bits
      */
-    NumberList(List<Integer> l, int size) {
-        this.list = l;
+    NumberList(long[] words, int size, int bits) {
+        if (bits < 1 || bits > MAX_SIZE) throw new IllegalArgumentException("bits out of range: " + bits);
+        this.words = words;
         this.size = size;
+        this.bits = bits;
+        this.mask = -1L >>> -bits;
     }
 
     /**
-     * Construct by parsing a number from string. Only 0s and 1s are allowed.
-     * @throws NumberFormatException if {@code String} contains anything other than 0 or 1.
-     * @see Integer#parseInt(String, int)
+     * Collection constructor, as per specification of AbstractList.
+     * Uses the fewest bits that hold the largest number, read as unsigned.
+     * @param c
      */
-    // public NumberList(String list) {
-    //     if (!list.matches("[01]+"))
-    //         throw new NumberFormatException();
+    public NumberList(Collection<? extends Integer> c) {
+        this(bitLength(c));
+        addAll(c);
+    }
 
-    //     this.list = new ArrayList<Integer>();
-    //     this.list.add(Integer.parseInt(list, 2));
-    //     this.size = list.length();
-    // }
+    static int bitLength(Collection<? extends Integer> c) {
+        int max = 0;
+        for (int e : c)
+            max |= e;
+        return Math.max(1, Integer.SIZE - Integer.numberOfLeadingZeros(max));
+    }
 
+    /**
+     * Returns the packed bits as one number, element 0 lowest.
+     */
     public BigInteger value() {
-        BigInteger val = new BigInteger("0");
-        for (int e : list)
-            val = val.add(new BigInteger(""+e));
-        return val;
+        int n = wordCount((long) size * bits);
+        // Big-endian with a leading zero byte so the result is never negative
+        byte[] bytes = new byte[n * Long.BYTES + 1];
+        for (int i = 0; i < n; i++) {
+            long w = words[i];
+            for (int b = 0; b < Long.BYTES; b++)
+                bytes[bytes.length - 1 - i * Long.BYTES - b] = (byte) (w >>> (b * 8));
+        }
+        return new BigInteger(bytes);
     }
 
     public int size() {
@@ -106,55 +135,158 @@ public class NumberList implements List<Integer> {
     }
 
     /**
-     * Appends the specified int to the end of this list.
-     * Will not throw if number's bits exceeds {@code bits}, but
+     * Number of words needed to hold {@code n} bits.
+     */
+    static int wordCount(long n) {
+        return (int) ((n + MAX_SIZE - 1) >>> 6);
+    }
+
+    /**
+     * Grows {@code words}, if necessary, to hold at least {@code n} numbers.
+     * Grows by half of the current length, as ArrayList does.
+     */
+    void ensureCapacity(int n) {
+        int needed = wordCount((long) n * bits);
+        if (needed > words.length)
+            words = Arrays.copyOf(words, Math.max(needed, words.length + (words.length >> 1)));
+    }
+
+    /**
+     * Makes sure {@code e}, read as unsigned, fits in {@code bits} bits, widening
+     * the list if auto-widening, else throwing.
+     */
+    long checkValue(long e) {
+        if ((e & ~mask) == 0)
+            return e;
+        if (!autoWiden) throw new IllegalArgumentException(Long.toUnsignedString(e) + " does not fit in " + bits + " bits");
+
+        // Grow by at least half, as ensureCapacity does, so a rising maximum only re-packs a few times
+        int needed = MAX_SIZE - Long.numberOfLeadingZeros(e);
+        widen(Math.min(MAX_SIZE, Math.max(needed, bits + (bits >> 1))));
+        return e;
+    }
+
+    public boolean isAutoWiden() {
+        return autoWiden;
+    }
+
+    /**
+     * When on, a number too wide for {@code bits} widens the whole list instead of throwing.
+     * Copies from {@code clone} and {@code reversed} keep the mode, but it is not
+     * streamed or serialized: a list read back is never auto-widening.
+     */
+    public void setAutoWiden(boolean autoWiden) {
+        this.autoWiden = autoWiden;
+    }
+
+    /**
+     * Re-packs every number at {@code newBits} bits per number, in one pass.
+     * @throws IllegalArgumentException if {@code newBits < bits() || newBits > 64}
+     */
+    public void widen(int newBits) {
+        if (newBits < bits || newBits > MAX_SIZE) throw new IllegalArgumentException("bits out of range: " + newBits);
+        if (newBits == bits)
+            return;
+        modCount++;
+
+        long[] r = new long[Math.max(1, wordCount((long) size * newBits))];
+        long[] chunk = new long[Math.min(size, CHUNK)];
+        for (int i = 0; i < size; i += CHUNK) {
+            int n = Math.min(CHUNK, size - i);
+            decode(i, chunk, 0, n);
+            pack(r, (long) i * newBits, newBits, chunk, 0, n);
+        }
+
+        words = r;
+        bits = newBits;
+        mask = -1L >>> -newBits;
+    }
+
+    /**
+     * Reads element {@code index} with no bounds check.
+     */
+    long read(int index) {
+        long bit = (long) index * bits;
+        int w = (int) (bit >>> 6);
+        int off = (int) bit & (MAX_SIZE - 1);
+
+        long e = words[w] >>> off;
+        // Crosses into the next word, so off != 0
+        if (off + bits > MAX_SIZE)
+            e |= words[w + 1] << -off;
+        return e & mask;
+    }
+
+    /**
+     * Writes element {@code index}, which must fit in {@code bits}, with no bounds check.
+     */
+    void write(int index, long e) {
+        long bit = (long) index * bits;
+        int w = (int) (bit >>> 6);
+        int off = (int) bit & (MAX_SIZE - 1);
+
+        words[w] = words[w] & ~(mask << off) | e << off;
+        if (off + bits > MAX_SIZE)
+            words[w + 1] = words[w + 1] & ~(mask >>> -off) | e >>> -off;
+    }
+
+    /**
+     * Appends the specified int to the end of this list, read as unsigned.
      * @param e int to be appended to this list
      * @return {@code true} (as specified by {@link Collection#add})
+     * @throws IllegalArgumentException if {@code e} does not fit in {@code bits} bits, unless auto-widening
+     * @see #setAutoWiden(boolean)
      */
     public boolean add(Integer e) {
-        // if more storage is needed
-        boolean overflow = size % MAX_SIZE + bits > MAX_SIZE;
-        if (overflow)
-            list.add(0);
-
-        int index = size/MAX_SIZE;
-        
-        list &= ~(1 << size);
-        
-        size++;
+        addLong(Integer.toUnsignedLong(e));
         return true;
     }
 
     /**
-     * Inserts the specified boolean at the specified position in this
-     * list. Shifts the bit currently at that position (if any) and
-     * any subsequent bits to the left (adds one to their indices).
+     * Appends the specified number to the end of this list, without boxing.
+     * @throws IllegalArgumentException if {@code e} does not fit in {@code bits} bits
+     */
+    public void addLong(long e) {
+        checkValue(e);
+        if (size == Integer.MAX_VALUE) throw new IndexOutOfBoundsException("NumberList overflow");
+        ensureCapacity(size + 1);
+        modCount++;
+
+        write(size++, e);
+    }
+
+    /**
+     * Inserts the specified int at the specified position in this
+     * list. Shifts the number currently at that position (if any) and
+     * any subsequent numbers to the right (adds one to their indices).
      *
-     * @param index index at which the specified boolean is to be inserted
-     * @param element boolean to be inserted
+     * @param index index at which the specified int is to be inserted
+     * @param element int to be inserted, read as unsigned
      * @throws IndexOutOfBoundsException if the index is out of range
      *         ({@code index < 0 || index > size()})
+     * @throws IllegalArgumentException if {@code element} does not fit in {@code bits} bits
      */
     public void add(int index, Integer element) {
-        if (index < 0 || index > size) throw new IndexOutOfBoundsException();
-        if (index == size) {
-            add(element);
-            return;
-        }
-
-        // TODO
-        
-        size++;
+        addLong(index, Integer.toUnsignedLong(element));
     }
 
     /**
-     * Unsupported operation.
-     * @throws UnsupportedOperationException
+     * Inserts the specified number at the specified position in this list, without boxing.
+     * @see NumberList#add(int, Integer)
      */
-    public boolean remove(Object o) {
-        throw new UnsupportedOperationException("Unimplemented method 'remove'");
+    public void addLong(int index, long element) {
+        if (index < 0 || index > size) throw new IndexOutOfBoundsException();
+        checkValue(element);
+        if (size == Integer.MAX_VALUE) throw new IndexOutOfBoundsException("NumberList overflow");
+        ensureCapacity(size + 1);
+        modCount++;
+
+        for (int i = size; i > index; i--)
+            write(i, read(i - 1));
+        write(index, element);
+        size++;
     }
-    
+
     /**
      * Removes the int at the specified position in this list.
      * Shifts any subsequent elements to the left (subtracts one from their
@@ -166,301 +298,699 @@ public class NumberList implements List<Integer> {
      *         ({@code index < 0 || index >= size()})
      */
     public Integer remove(int index) {
+        return (int) removeLong(index);
+    }
+
+    /**
+     * Removes the number at the specified position in this list, without boxing.
+     * @see NumberList#remove(int)
+     */
+    public long removeLong(int index) {
         if (index < 0 || index >= size) throw new IndexOutOfBoundsException();
+        modCount++;
 
-        size--;
-        return list.get(index/MAX_SIZE);
+        long p = read(index);
+        for (int i = index; i < size - 1; i++)
+            write(i, read(i + 1));
+        write(--size, 0);
+        return p;
     }
-    
+
     public Integer get(int index) {
-        if (index < 0 || index >= size) throw new IndexOutOfBoundsException();
+        return getInt(index);
+    }
 
-        int startIdx = (index * size) % MAX_SIZE ;
+    /**
+     * Returns the low 32 bits of the number at the specified position, without boxing.
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         ({@code index < 0 || index >= size()})
+     */
+    public int getInt(int index) {
+        return (int) getLong(index);
+    }
+
+    /**
+     * Returns the number at the specified position, without boxing.
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         ({@code index < 0 || index >= size()})
+     */
+    public long getLong(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException();
 
-        return (list & (1 << index)) != 0;
+        return read(index);
     }
-    
+
+    /**
+     * Replaces the number at the specified position with {@code element}, read as unsigned.
+     * @return the low 32 bits of the number previously at the specified position
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         ({@code index < 0 || index >= size()})
+     * @throws IllegalArgumentException if {@code element} does not fit in {@code bits} bits
+     */
     public Integer set(int index, Integer element) {
+        return (int) setLong(index, Integer.toUnsignedLong(element));
+    }
+
+    /**
+     * Replaces the number at the specified position, without boxing.
+     * @return the number previously at the specified position
+     * @see NumberList#set(int, Integer)
+     */
+    public long setLong(int index, long element) {
         if (index < 0 || index >= size) throw new IndexOutOfBoundsException();
-        
-        // Replaced bit
-        boolean p = get(index);
-        
-        if (p != element)
-            list ^= (1 << index);
+        checkValue(element);
+        modCount++;
 
+        // Replaced number
+        long p = read(index);
+        write(index, element);
         return p;
     }
 
+    // Bulk operations
+    // Widths that divide 64 never cross a word, so they decode a whole word at
+    // a time with a loop of constant length per width. Every other width
+    // streams through the words with unpack and pack, one load or store per
+    // word rather than per number. BlockNumberList shares the same two loops.
+
+    // Numbers decoded per chunk, 8 KB of longs
+    static final int CHUNK = 1024;
+
     /**
-     * Calls set method with int converted to boolean.
-     * @param e 0 or 1
-     * @throws IllegalArgumentException if e is not 0 or 1
-     * @see BinaryList#set(int, Integer)
+     * Copies {@code len} numbers of {@code width} bits, packed in {@code words} from
+     * bit {@code bit}, into {@code dest}, starting at {@code off}.
      */
-    public Integer set(int index, int e) {
-        if (e != 0 && e != 1)
-            throw new IllegalArgumentException();
+    static void unpack(long[] words, long bit, int width, long[] dest, int off, int len) {
+        if (len == 0)
+            return;
+        int w = (int) (bit >>> 6);
+        if (width == MAX_SIZE) {
+            // One word per number, and shifts by 64 would do nothing
+            System.arraycopy(words, w, dest, off, len);
+            return;
+        }
 
-        return set(index, e == 1);
+        long mask = -1L >>> -width;
+        // Unread bits of the current word, shifted down
+        long cur = words[w] >>> bit;
+        int avail = MAX_SIZE - ((int) bit & (MAX_SIZE - 1));
+        for (int i = off; i < off + len; i++) {
+            long e;
+            if (width <= avail) {
+                e = cur;
+                cur >>>= width;
+                avail -= width;
+            } else {
+                long next = words[++w];
+                e = cur | next << avail;
+                cur = next >>> (width - avail);
+                avail += MAX_SIZE - width;
+            }
+            dest[i] = e & mask;
+        }
     }
 
     /**
-     * Returns new instance with bits reversed.
+     * Packs {@code len} numbers of {@code src}, starting at {@code off}, at {@code width}
+     * bits each into {@code words} from bit {@code bit}, keeping the bits around the range.
+     * Numbers must already fit.
      */
-    public BinaryList reversed() {
-        // TODO AAAHHhHHHH
-        int copy = list;
-        int r = 0;
-        
-        for (int i = 0; i < size; i++) {
-            r <<= 1;
-            if ((copy & 1) != 0)
-                r |= 1;
-            
-            copy >>>= 1;
+    static void pack(long[] words, long bit, int width, long[] src, int off, int len) {
+        if (len == 0)
+            return;
+        int w = (int) (bit >>> 6);
+        int used = (int) bit & (MAX_SIZE - 1);
+        // Pending bits of the current word, starting with those before the range
+        long cur = words[w] & ~(-1L << used);
+
+        for (int i = off; i < off + len; i++) {
+            long e = src[i];
+            cur |= e << used;
+            used += width;
+            if (used >= MAX_SIZE) {
+                words[w++] = cur;
+                used -= MAX_SIZE;
+                cur = used == 0 ? 0 : e >>> (width - used);
+            }
         }
+        // Keep the bits after the range
+        if (used != 0)
+            words[w] = cur | (words[w] & (-1L << used));
+    }
 
-        return new BinaryList(r, size);
-    }
-
-    // // Size manipulation
-    // // Increases size //(overwrites with 0)
-    // public void pad_back(int n) {
-    //     //list &= ~((1 << size + n) - (1 << size));
-    //     size += n;
-    // }
-    // // Adds 0s to front
-    // public void pad_front(int n) {
-    //     list <<= n;
-    //     size += n;
-    // }
-    // // Removes ends
-    // public void trim_front(int n) {
-    //     list >>>= n;
-    //     size -= n;
-    // }
-    // // Note: does not clear bits
-    // public void trim_back(int n) {
-    //     size -= n;
-    // }
-
-    /*public void checkHighestBit() {
-        // can use Integer methods?
-    }*/
+    /**
+     * Copies the numbers in [from, from + len) into {@code dest}, starting at {@code off}.
+     * Numbers must be in range.
+     */
+    void decode(int from, long[] dest, int off, int len) {
+        unpack(words, (long) from * bits, bits, dest, off, len);
+    }
 
-    @Override
-    public boolean equals(Object obj) {
-        if (this == obj)
-            return true;
-        if (obj == null)
-            return false;
-        if (getClass() != obj.getClass())
-            return false;
-        NumberList other = (NumberList) obj;
-        if (size != other.size)
-            return false;
-        if (value() != other.value())
-            return false;
-        return true;
+    /**
+     * Copies the low 32 bits of the numbers in [from, from + len) into {@code dest}, starting at {@code off}.
+     * @throws IndexOutOfBoundsException if either range is out of bounds
+     */
+    public void get(int from, int[] dest, int off, int len) {
+        if (from < 0 || len < 0 || from > size - len) throw new IndexOutOfBoundsException();
+        Objects.checkFromIndexSize(off, len, dest.length);
+
+        int i = from;
+        int end = from + len;
+        if (MAX_SIZE % bits == 0) {
+            int perWord = MAX_SIZE / bits;
+            for (; i < end && i % perWord != 0; i++)
+                dest[off++] = (int) read(i);
+            for (int w = i / perWord; end - i >= perWord; i += perWord, off += perWord)
+                decodeWord(words[w++], dest, off);
+            for (; i < end; i++)
+                dest[off++] = (int) read(i);
+            return;
+        }
+
+        long[] chunk = new long[Math.min(len, CHUNK)];
+        for (; i < end; i += CHUNK) {
+            int n = Math.min(CHUNK, end - i);
+            decode(i, chunk, 0, n);
+            for (int j = 0; j < n; j++)
+                dest[off++] = (int) chunk[j];
+        }
     }
 
-    @Override
-    public int hashCode() {
-        final int prime = 31;
-        int result = 1;
-        result = prime * result + size;
-        result = prime * result + bits;
-        for (int e : list)
-            result = prime * result + e;
-        
-        return result;
+    /**
+     * Decodes the {@code 64 / bits} numbers of one word into {@code dest}, for widths that divide 64.
+     */
+    void decodeWord(long word, int[] dest, int off) {
+        switch (bits) {
+            case 1:
+                for (int j = 0; j < 64; j++)
+                    dest[off + j] = (int) (word >>> j) & 1;
+                break;
+            case 2:
+                for (int j = 0; j < 32; j++)
+                    dest[off + j] = (int) (word >>> (j << 1)) & 3;
+                break;
+            case 4:
+                for (int j = 0; j < 16; j++)
+                    dest[off + j] = (int) (word >>> (j << 2)) & 0xF;
+                break;
+            case 8:
+                for (int j = 0; j < 8; j++)
+                    dest[off + j] = (int) (word >>> (j << 3)) & 0xFF;
+                break;
+            case 16:
+                dest[off] = (int) word & 0xFFFF;
+                dest[off + 1] = (int) (word >>> 16) & 0xFFFF;
+                dest[off + 2] = (int) (word >>> 32) & 0xFFFF;
+                dest[off + 3] = (int) (word >>> 48);
+                break;
+            case 32:
+                dest[off] = (int) word;
+                dest[off + 1] = (int) (word >>> 32);
+                break;
+            default:
+                dest[off] = (int) word;
+                break;
+        }
     }
 
-    public Integer[] toArray() {
-        Integer[] array = new Integer[size];
+    /**
+     * Replaces the numbers in [from, from + len) with {@code len} ints of {@code src}, starting at {@code off}, read as unsigned.
+     * Nothing is changed if any int does not fit.
+     * @throws IndexOutOfBoundsException if either range is out of bounds
+     * @throws IllegalArgumentException if an int does not fit in {@code bits} bits
+     */
+    public void set(int from, int[] src, int off, int len) {
+        if (from < 0 || len < 0 || from > size - len) throw new IndexOutOfBoundsException();
+        Objects.checkFromIndexSize(off, len, src.length);
+        checkValues(src, off, len);
+        modCount++;
 
-        int i = 0;
-        for (int e : this)
-            array[i++] = e;
+        encode(from, src, off, len);
+    }
 
-        return array;
+    /**
+     * Appends every int of {@code src}, read as unsigned. Nothing is appended if any int does not fit.
+     * @return {@code true} if this list changed as a result of the call
+     * @throws IllegalArgumentException if an int does not fit in {@code bits} bits
+     */
+    public boolean addAll(int[] src) {
+        checkValues(src, 0, src.length);
+        if ((long) size + src.length > Integer.MAX_VALUE) throw new IndexOutOfBoundsException("NumberList overflow");
+        ensureCapacity(size + src.length);
+        modCount++;
+
+        int from = size;
+        size += src.length;
+        encode(from, src, 0, src.length);
+        return src.length != 0;
     }
 
     /**
-     * Copied from ArrayList.toArray(T[])
+     * Makes sure every int in the range fits in {@code bits} bits, read as unsigned.
+     * @see #checkValue(long)
      */
-    @Override
-    @SuppressWarnings("unchecked")
-    public <T> T[] toArray(T[] a) {
-        Integer[] elementData = toArray();
-
-        if (a.length < size)
-            // Make a new array of a's runtime type, but my contents:
-            return (T[]) Arrays.copyOf(elementData, size, a.getClass());
-        System.arraycopy(elementData, 0, a, 0, size);
-        if (a.length > size)
-            a[size] = null;
-        return a;
-    }
-    
-    @Override
-    public String toString() {
-        return String.format("%"+size()+"s", value().toString())
-                     .replace(' ', '0');
+    void checkValues(int[] src, int off, int len) {
+        int any = 0;
+        for (int i = off; i < off + len; i++)
+            any |= src[i];
+        checkValue(Integer.toUnsignedLong(any));
     }
 
-    @Override
-    public NumberList clone() {
-        List<Integer> l = new ArrayList<>();
-        for (int e : list)
-            l.add(e);
-        
-        return new NumberList(l, size);
+    /**
+     * Packs numbers into the words from {@code from}, a chunk at a time.
+     * Keeps the bits around the range. Numbers must already fit.
+     */
+    void encode(int from, int[] src, int off, int len) {
+        long[] chunk = new long[Math.min(len, CHUNK)];
+        for (int i = 0; i < len; i += CHUNK) {
+            int n = Math.min(CHUNK, len - i);
+            for (int j = 0; j < n; j++)
+                chunk[j] = Integer.toUnsignedLong(src[off + i + j]);
+            pack(words, (long) (from + i) * bits, bits, chunk, 0, n);
+        }
     }
 
-    @Override
-    public Iterator<Integer> iterator() {
-        return new NumberListIterator();
+    /**
+     * Returns new instance with the numbers in reverse order.
+     */
+    public NumberList reversed() {
+        NumberList r = new NumberList(new long[Math.max(1, wordCount((long) size * bits))], size, bits);
+        for (int i = 0; i < size; i++)
+            r.write(size - 1 - i, read(i));
+        r.autoWiden = autoWiden;
+        return r;
     }
 
-    class NumberListIterator implements Iterator<Integer> {
-        // a
-        int n;
-        // tracking current index in list
-        int i;
-        NumberListIterator() {
-            copy = list;
-            i = 0;
+    // Aggregates
+    // Each decodes CHUNK numbers at a time into a buffer, streaming through the
+    // words with one load per word, then reduces the buffer in a plain loop.
+    // Numbers are unsigned, so min and max compare unsigned. The range forms
+    // over [from, to) are what ParallelNumberList splits.
+
+    // Most buckets histogram() counts, as bits
+    public static final int HISTOGRAM_BITS = 16;
+
+    /**
+     * Returns the sum of the numbers, wrapping on overflow as long addition does.
+     */
+    public long sum() {
+        return sum(0, size);
+    }
+
+    long sum(int from, int to) {
+        long[] chunk = new long[CHUNK];
+        long sum = 0;
+        for (int i = from; i < to; i += CHUNK) {
+            int n = Math.min(CHUNK, to - i);
+            decode(i, chunk, 0, n);
+            for (int j = 0; j < n; j++)
+                sum += chunk[j];
         }
+        return sum;
+    }
 
-        @Override
-        public boolean hasNext() {
-            return i != 0;
+    /**
+     * Returns the smallest number, compared unsigned.
+     * @throws NoSuchElementException if the list is empty
+     */
+    public long min() {
+        if (size == 0) throw new NoSuchElementException();
+        return min(0, size);
+    }
+
+    long min(int from, int to) {
+        long[] chunk = new long[CHUNK];
+        long min = -1L;
+        for (int i = from; i < to; i += CHUNK) {
+            int n = Math.min(CHUNK, to - i);
+            decode(i, chunk, 0, n);
+            for (int j = 0; j < n; j++)
+                if (Long.compareUnsigned(chunk[j], min) < 0)
+                    min = chunk[j];
         }
+        return min;
+    }
 
-        @Override
-        public Integer next() {
-            if (i < 1) throw new NoSuchElementException();;
+    /**
+     * Returns the largest number, compared unsigned.
+     * @throws NoSuchElementException if the list is empty
+     */
+    public long max() {
+        if (size == 0) throw new NoSuchElementException();
+        return max(0, size);
+    }
+
+    long max(int from, int to) {
+        long[] chunk = new long[CHUNK];
+        long max = 0;
+        for (int i = from; i < to; i += CHUNK) {
+            int n = Math.min(CHUNK, to - i);
+            decode(i, chunk, 0, n);
+            for (int j = 0; j < n; j++)
+                if (Long.compareUnsigned(chunk[j], max) > 0)
+                    max = chunk[j];
+        }
+        return max;
+    }
 
-            i--;
-            int n = copy % 2;
-            copy >>>= 1;
-            return n != 0;
+    /**
+     * Returns the number of numbers that match {@code predicate}.
+     */
+    public int count(LongPredicate predicate) {
+        return count(predicate, 0, size);
+    }
+
+    int count(LongPredicate predicate, int from, int to) {
+        long[] chunk = new long[CHUNK];
+        int count = 0;
+        for (int i = from; i < to; i += CHUNK) {
+            int n = Math.min(CHUNK, to - i);
+            decode(i, chunk, 0, n);
+            for (int j = 0; j < n; j++)
+                if (predicate.test(chunk[j]))
+                    count++;
         }
+        return count;
     }
 
-    @Override
-    public boolean isEmpty() {
-        return size == 0;
+    /**
+     * Returns the count of each value, indexed by value, for lists of at most
+     * {@code HISTOGRAM_BITS} bits. Wider lists are counted by their top
+     * {@code HISTOGRAM_BITS} bits, as {@link #histogram(int)} does.
+     */
+    public int[] histogram() {
+        return histogram(Math.min(bits, HISTOGRAM_BITS));
     }
 
     /**
-     * Unimplemented
+     * Returns the count of each of {@code 2^bucketBits} equal buckets, indexed
+     * by the top {@code bucketBits} bits of the number.
+     * @throws IllegalArgumentException if {@code bucketBits} is negative, or
+     *         more than {@code bits} or {@code HISTOGRAM_BITS}
      */
-    @Override
-    public boolean contains(Object o) {
-        // TODO Auto-generated method stub
-        throw new UnsupportedOperationException("Unimplemented method 'contains'");
+    public int[] histogram(int bucketBits) {
+        checkBuckets(bucketBits);
+        int[] counts = new int[1 << bucketBits];
+        histogram(counts, bucketBits, 0, size);
+        return counts;
+    }
+
+    void checkBuckets(int bucketBits) {
+        if (bucketBits < 0 || bucketBits > Math.min(bits, HISTOGRAM_BITS))
+            throw new IllegalArgumentException(bucketBits + " bucket bits for a list of " + bits + " bits");
     }
 
     /**
-     * Unsupported operation.
+     * Adds the bucket counts of [from, to) to {@code counts}.
      */
-    @Override
-    public boolean containsAll(Collection<?> c) {
-        // TODO Auto-generated method stub
-        throw new UnsupportedOperationException("Unimplemented method 'containsAll'");
+    void histogram(int[] counts, int bucketBits, int from, int to) {
+        if (bucketBits == 0) {
+            // A shift by bits would do nothing at 64 bits
+            counts[0] += to - from;
+            return;
+        }
+        int shift = bits - bucketBits;
+        long[] chunk = new long[CHUNK];
+        for (int i = from; i < to; i += CHUNK) {
+            int n = Math.min(CHUNK, to - i);
+            decode(i, chunk, 0, n);
+            for (int j = 0; j < n; j++)
+                counts[(int) (chunk[j] >>> shift)]++;
+        }
     }
 
     /**
-     * Unsupported operation.
+     * Returns a view that runs the aggregates in parallel, in the common ForkJoinPool.
      */
-    @Override
-    public boolean addAll(Collection<? extends Integer> c) {
-        // TODO Auto-generated method stub
-        throw new UnsupportedOperationException("Unimplemented method 'addAll'");
+    public ParallelNumberList parallel() {
+        return parallel(ForkJoinPool.commonPool());
     }
 
     /**
-     * Unsupported operation.
+     * Returns a view that runs the aggregates in parallel, in {@code pool}.
      */
-    @Override
-    public boolean addAll(int index, Collection<? extends Integer> c) {
-        // TODO Auto-generated method stub
-        throw new UnsupportedOperationException("Unimplemented method 'addAll'");
+    public ParallelNumberList parallel(ForkJoinPool pool) {
+        return new ParallelNumberList(this, pool);
     }
 
+    // Streaming
+    // A varint size and a varint bits, then the packed words in
+    // ceil(size * bits / 8) little-endian bytes, through a fixed-size buffer.
+
     /**
-     * Unsupported operation.
+     * Writes this list to {@code out}, as a varint size and bits and ceil(size * bits / 8) bytes.
+     * @see #readFrom(InputStream)
      */
-    @Override
-    public boolean removeAll(Collection<?> c) {
-        // TODO Auto-generated method stub
-        throw new UnsupportedOperationException("Unimplemented method 'removeAll'");
+    public void writeTo(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out, BLP.STREAM_BUFFER));
+        write(data);
+        data.flush();
     }
 
     /**
-     * Unsupported operation.
+     * Writes this list to {@code ch}, as a varint size and bits and ceil(size * bits / 8) bytes.
+     * @see #readFrom(ReadableByteChannel)
      */
-    @Override
-    public boolean retainAll(Collection<?> c) {
-        // TODO Auto-generated method stub
-        throw new UnsupportedOperationException("Unimplemented method 'retainAll'");
+    public void writeTo(WritableByteChannel ch) throws IOException {
+        writeTo(Channels.newOutputStream(ch));
     }
 
     /**
-     * Clears out list and size but retains bits.
+     * Reads a list written by {@link #writeTo(OutputStream)}, without reading past its last byte.
+     * The auto-widen mode is not part of the stream, so the list read is not auto-widening.
+     * @throws IOException if the stream ends early, or the size or bits are out of range
      */
-    @Override
-    public void clear() {
-        list.clear();
-        list.add(0);
-        size = 0;
+    public static NumberList readFrom(InputStream in) throws IOException {
+        NumberList r = new NumberList();
+        r.read(new DataInputStream(in));
+        return r;
     }
 
     /**
-     * Unsupported operation.
+     * Reads a list written by {@link #writeTo(WritableByteChannel)}, without reading past its last byte.
+     * @throws IOException if the channel ends early, or the size or bits are out of range
      */
+    public static NumberList readFrom(ReadableByteChannel ch) throws IOException {
+        return readFrom(Channels.newInputStream(ch));
+    }
+
+    void write(DataOutput out) throws IOException {
+        Varint.write(out, size);
+        Varint.write(out, bits);
+
+        long total = (long) size * bits;
+        byte[] buffer = new byte[BLP.STREAM_BUFFER];
+        ByteBuffer b = ByteBuffer.wrap(buffer).order(ByteOrder.LITTLE_ENDIAN);
+        int n = wordCount(total);
+        for (int i = 0; i < n; i++) {
+            b.putLong(words[i]);
+            if (i == n - 1) {
+                // Only the bytes in use of the last word
+                out.write(buffer, 0, b.position() - Long.BYTES + (int) (((total - 1) & (MAX_SIZE - 1)) >>> 3) + 1);
+            } else if (!b.hasRemaining()) {
+                out.write(buffer, 0, b.position());
+                b.clear();
+            }
+        }
+    }
+
+    void read(DataInput in) throws IOException {
+        long n = Varint.read(in);
+        long bits = Varint.read(in);
+        if (n < 0 || n > Integer.MAX_VALUE) throw new IOException("NumberList size out of range: " + n);
+        if (bits < 1 || bits > MAX_SIZE) throw new IOException("NumberList bits out of range: " + bits);
+
+        long total = n * bits;
+        // Payloads can pass 2 GiB, so count bytes in longs
+        if ((total + MAX_SIZE - 1) >>> 6 > MAX_WORDS) throw new IOException("NumberList too large: " + n + " numbers of " + bits + " bits");
+        long bytes = (total + 7) >>> 3;
+        long[] words = new long[Math.max(1, wordCount(total))];
+        byte[] buffer = new byte[BLP.STREAM_BUFFER];
+        ByteBuffer b = ByteBuffer.wrap(buffer).order(ByteOrder.LITTLE_ENDIAN);
+        for (long done = 0; done < bytes; done += BLP.STREAM_BUFFER) {
+            int len = (int) Math.min(BLP.STREAM_BUFFER, bytes - done);
+            in.readFully(buffer, 0, len);
+            // Pad the last word with 0s
+            int padded = (len + Long.BYTES - 1) & -Long.BYTES;
+            Arrays.fill(buffer, len, padded, (byte) 0);
+
+            b.clear();
+            for (int w = (int) (done >>> 3), end = w + padded / Long.BYTES; w < end; w++)
+                words[w] = b.getLong();
+        }
+        // Clear any bits beyond the last number
+        if ((total & (MAX_SIZE - 1)) != 0)
+            words[(int) (total >>> 6)] &= -1L >>> -total;
+
+        modCount++;
+        this.words = words;
+        this.size = (int) n;
+        this.bits = (int) bits;
+        this.mask = -1L >>> -bits;
+    }
+
     @Override
-    public int indexOf(Object o) {
-        // TODO Auto-generated method stub
-        throw new UnsupportedOperationException("Unimplemented method 'indexOf'");
+    public void writeExternal(ObjectOutput out) throws IOException {
+        write(out);
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException {
+        read(in);
     }
 
     /**
-     * Unsupported operation.
+     * Note: Does not check for concurrent modification.
      */
     @Override
-    public int lastIndexOf(Object o) {
-        // TODO Auto-generated method stub
-        throw new UnsupportedOperationException("Unimplemented method 'lastIndexOf'");
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        // also checks for null
+        if (!(obj instanceof List))
+            return false;
+
+        if (obj.getClass() == NumberList.class) {
+            NumberList other = (NumberList) obj;
+            if (size != other.size)
+                return false;
+            // Numbers of up to 32 bits are their own List view, so whole words compare
+            if (bits == other.bits && bits <= 32) {
+                int n = wordCount((long) size * bits);
+                return Arrays.equals(words, 0, n, other.words, 0, n);
+            }
+            // Otherwise compare the low 32 bits that get returns, as List specifies
+            for (int i = 0; i < size; i++)
+                if ((int) read(i) != (int) other.read(i))
+                    return false;
+            return true;
+        }
+        return super.equals(obj);
+    }
+
+    @Override
+    public int hashCode() {
+        // As specified by List, so that equal lists of other classes hash the same
+        int result = 1;
+        for (int i = 0; i < size; i++)
+            result = 31 * result + (int) read(i);
+        return result;
+    }
+
+    @Override
+    public NumberList clone() {
+        NumberList r = new NumberList(words.clone(), size, bits);
+        r.autoWiden = autoWiden;
+        return r;
+    }
+
+    @Override
+    public PrimitiveIterator.OfInt iterator() {
+        return new NumberIterator();
+    }
+
+    /**
+     * Decodes one number at a time, from a running bit position.
+     * Note: Does not check for concurrent modification.
+     */
+    class NumberIterator implements PrimitiveIterator.OfInt {
+        // tracking current index in list
+        int i;
+
+        @Override
+        public boolean hasNext() {
+            return i < size;
+        }
+
+        @Override
+        public int nextInt() {
+            if (i >= size) throw new NoSuchElementException();
+
+            return (int) read(i++);
+        }
     }
 
     /**
-     * Unsupported operation.
+     * Splits at element boundaries, for parallel streams.
      */
     @Override
-    public ListIterator<Integer> listIterator() {
-        // TODO Auto-generated method stub
-        throw new UnsupportedOperationException("Unimplemented method 'listIterator'");
+    public Spliterator.OfInt spliterator() {
+        return new NumberSpliterator(0, size);
+    }
+
+    /**
+     * Returns the low 32 bits of each number as a stream, without boxing.
+     */
+    public IntStream intStream() {
+        return StreamSupport.intStream(spliterator(), false);
     }
 
     /**
-     * Unsupported operation.
+     * Hands out numbers over [index, fence), splitting in half at an element boundary.
+     * Note: Does not check for concurrent modification.
      */
+    class NumberSpliterator implements Spliterator.OfInt {
+        // Splits are never smaller than this many numbers
+        static final int MIN_SPLIT = 1024;
+
+        // next index to hand out
+        int index;
+        // index after the last number to hand out
+        final int fence;
+
+        NumberSpliterator(int index, int fence) {
+            this.index = index;
+            this.fence = fence;
+        }
+
+        @Override
+        public OfInt trySplit() {
+            int mid = (index + fence) >>> 1;
+            if (mid - index < MIN_SPLIT / 2)
+                return null;
+            NumberSpliterator prefix = new NumberSpliterator(index, mid);
+            index = mid;
+            return prefix;
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            if (index >= fence)
+                return false;
+            action.accept((int) read(index++));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            for (int i = index; i < fence; i++)
+                action.accept((int) read(i));
+            index = fence;
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | NONNULL;
+        }
+    }
+
     @Override
-    public ListIterator<Integer> listIterator(int index) {
-        // TODO Auto-generated method stub
-        throw new UnsupportedOperationException("Unimplemented method 'listIterator'");
+    public boolean isEmpty() {
+        return size == 0;
     }
 
     /**
-     * Unsupported operation.
+     * Clears out list and size but retains bits.
      */
     @Override
-    public List<Integer> subList(int fromIndex, int toIndex) {
-        // TODO Auto-generated method stub
-        throw new UnsupportedOperationException("Unimplemented method 'subList'");
+    public void clear() {
+        modCount++;
+        Arrays.fill(words, 0, wordCount((long) size * bits), 0L);
+        size = 0;
     }
 }
@@ -0,0 +1,250 @@
+package BinaryListPlus;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import BinaryList.Varint;
+
+public class NumberListTest {
+    @Test
+    public void testEveryWidth() {
+        Random random = new Random(42);
+        for (int bits = 1; bits <= NumberList.MAX_SIZE; bits++) {
+            NumberList n = new NumberList(bits);
+            long mask = -1L >>> -bits;
+            long[] expected = new long[500];
+            for (int i = 0; i < expected.length; i++) {
+                expected[i] = random.nextLong() & mask;
+                n.addLong(expected[i]);
+            }
+            assertEquals(expected.length, n.size());
+            // Elements crossing word boundaries read back whole
+            for (int i = 0; i < expected.length; i++)
+                assertEquals(expected[i], n.getLong(i));
+
+            for (int i = 0; i < expected.length; i += 7) {
+                long e = random.nextLong() & mask;
+                assertEquals(expected[i], n.setLong(i, e));
+                expected[i] = e;
+            }
+            for (int i = 0; i < expected.length; i++)
+                assertEquals(expected[i], n.getLong(i));
+        }
+    }
+
+    @Test
+    public void testList() {
+        NumberList n = new NumberList(5);
+        List<Integer> expected = new ArrayList<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 1000; i++) {
+            int e = random.nextInt(32);
+            n.add(e);
+            expected.add(e);
+        }
+        for (int i = 0; i < 200; i++) {
+            int index = random.nextInt(expected.size() + 1);
+            n.add(index, i % 32);
+            expected.add(index, i % 32);
+            index = random.nextInt(expected.size());
+            assertEquals(expected.remove(index), n.remove(index));
+        }
+        assertEquals(expected, n);
+        assertEquals(expected.hashCode(), n.hashCode());
+        assertEquals(n, n.clone());
+        assertEquals(expected.stream().mapToInt(Integer::intValue).sum(), n.intStream().parallel().sum());
+
+        NumberList r = n.reversed();
+        assertEquals(expected.get(0), r.get(r.size() - 1));
+
+        try {
+            n.add(32);
+            fail();
+        } catch (IllegalArgumentException e) {
+        }
+
+        NumberList c = new NumberList(Arrays.asList(3, 9, 4));
+        assertEquals(4, c.bits());
+        assertEquals(Arrays.asList(3, 9, 4), c);
+
+        // The Integer methods read and write 32 bits unsigned
+        NumberList full = new NumberList();
+        full.add(-1);
+        assertEquals(0xFFFFFFFFL, full.getLong(0));
+        assertEquals(-1, (int) full.get(0));
+    }
+
+    @Test
+    public void testStreaming() throws IOException {
+        NumberList n = new NumberList(13);
+        for (int i = 0; i < 10_000; i++)
+            n.addLong(i * 31 % 8192);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        n.writeTo(bytes);
+        // Varint size and bits, then exactly ceil(size * bits / 8) bytes
+        assertEquals(2 + 1 + (10_000 * 13 + 7) / 8, bytes.size());
+        assertEquals(n, NumberList.readFrom(new ByteArrayInputStream(bytes.toByteArray())));
+
+        // A header for more words than an array holds
+        ByteArrayOutputStream huge = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(huge);
+        Varint.write(out, Integer.MAX_VALUE);
+        Varint.write(out, 64);
+        try {
+            NumberList.readFrom(new ByteArrayInputStream(huge.toByteArray()));
+            fail();
+        } catch (IOException e) {
+        }
+    }
+
+    @Test
+    public void testEqualsAsList() {
+        // Equal as Lists of Integer, which hold the low 32 bits
+        NumberList x = new NumberList(40);
+        x.addLong(1L << 35);
+        NumberList y = new NumberList(40);
+        y.addLong(0);
+        NumberList z = new NumberList(33);
+        z.addLong(0);
+        assertEquals(x, z);
+        assertEquals(z, y);
+        assertEquals(x, y);
+        assertEquals(x.hashCode(), y.hashCode());
+
+        y.setLong(0, 1);
+        assertNotEquals(x, y);
+        assertNotEquals(y, z);
+    }
+
+    @Test
+    public void testBulk() {
+        Random random = new Random(3);
+        for (int bits = 1; bits <= NumberList.MAX_SIZE; bits++) {
+            int mask = bits >= 32 ? -1 : (1 << bits) - 1;
+            int[] src = new int[777];
+            for (int i = 0; i < src.length; i++)
+                src[i] = random.nextInt() & mask;
+
+            NumberList n = new NumberList(bits);
+            n.addLong(1);
+            assertTrue(n.addAll(src));
+            assertEquals(src.length + 1, n.size());
+            for (int i = 0; i < src.length; i++)
+                assertEquals(src[i], n.getInt(i + 1));
+
+            // Unaligned ranges at both ends
+            int[] dest = new int[src.length + 2];
+            n.get(4, dest, 2, 700);
+            assertArrayEquals(Arrays.copyOfRange(src, 3, 703), Arrays.copyOfRange(dest, 2, 702));
+
+            int[] update = new int[301];
+            for (int i = 0; i < update.length; i++)
+                update[i] = random.nextInt() & mask;
+            n.set(5, update, 0, update.length);
+            assertEquals(1, n.getLong(0));
+            for (int i = 0; i < update.length; i++)
+                assertEquals(update[i], n.getInt(5 + i));
+            assertEquals(src[3], n.getInt(4));
+            assertEquals(src[305], n.getInt(306));
+        }
+
+        NumberList narrow = new NumberList(3);
+        try {
+            narrow.addAll(new int[] {1, 8});
+            fail();
+        } catch (IllegalArgumentException e) {
+        }
+        assertTrue(narrow.isEmpty());
+    }
+
+    @Test
+    public void testAggregates() {
+        Random random = new Random(5);
+        for (int bits = 1; bits <= NumberList.MAX_SIZE; bits++) {
+            NumberList n = new NumberList(bits);
+            long mask = -1L >>> -bits;
+            int buckets = Math.min(bits, NumberList.HISTOGRAM_BITS);
+            long sum = 0, min = -1L, max = 0;
+            int odd = 0;
+            int[] histogram = new int[1 << buckets];
+            // Spans several chunks, ending part way through one
+            for (int i = 0; i < 2500; i++) {
+                long e = random.nextLong() & mask;
+                n.addLong(e);
+                sum += e;
+                if (Long.compareUnsigned(e, min) < 0) min = e;
+                if (Long.compareUnsigned(e, max) > 0) max = e;
+                if ((e & 1) != 0) odd++;
+                histogram[(int) (e >>> (bits - buckets))]++;
+            }
+            assertEquals(sum, n.sum());
+            assertEquals(min, n.min());
+            assertEquals(max, n.max());
+            assertEquals(odd, n.count(e -> (e & 1) != 0));
+            assertArrayEquals(histogram, n.histogram());
+            assertArrayEquals(new int[] {2500}, n.histogram(0));
+        }
+
+        NumberList n = new NumberList(4);
+        assertEquals(0, n.sum());
+        try {
+            n.min();
+            fail();
+        } catch (NoSuchElementException e) {
+        }
+        try {
+            n.histogram(5);
+            fail();
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    @Test
+    public void testAutoWiden() {
+        NumberList n = new NumberList(2);
+        n.setAutoWiden(true);
+        List<Integer> expected = new ArrayList<>();
+        int widenings = 0;
+        for (int i = 0; i < 100_000; i++) {
+            int bits = n.bits();
+            n.add(i);
+            expected.add(i);
+            if (n.bits() != bits)
+                widenings++;
+        }
+        assertEquals(expected, n);
+        // 17 bits needed, reached in steps of at least half: 2, 3, 4, 6, 9, 13, 19
+        assertEquals(19, n.bits());
+        assertEquals(6, widenings);
+
+        n.addAll(new int[] {-1});
+        assertEquals(0xFFFFFFFFL, n.getLong(n.size() - 1));
+        assertEquals(99_999, (int) n.get(99_999));
+
+        NumberList fixed = new NumberList(4);
+        fixed.add(15);
+        fixed.widen(9);
+        assertEquals(9, fixed.bits());
+        assertEquals(15, (int) fixed.get(0));
+
+        // Copies widen too
+        NumberList narrow = new NumberList(2);
+        narrow.setAutoWiden(true);
+        narrow.addLong(3);
+        NumberList copy = narrow.clone();
+        assertTrue(copy.isAutoWiden());
+        copy.addLong(100);
+        assertTrue(narrow.reversed().isAutoWiden());
+    }
+}
@@ -0,0 +1,429 @@
+package BinaryListPlus;
+import BinaryList.BooleanIterator;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.NoSuchElementException;
+
+/**
+ * A BLP whose words live off-heap, in a direct ByteBuffer, so that very large
+ * lists add nothing to the heap the garbage collector has to trace or copy.
+ * Words are read and written as little-endian longs through a VarHandle, in the
+ * same layout as BLP: element {@code i} is bit {@code i % MAX_SIZE} of word
+ * {@code i / MAX_SIZE}, and bits at or beyond {@code size} are always clear.
+ * Call {@link #close()} when done, after which the list cannot be used.
+ */
+public class OffHeapBLP extends AbstractList<Boolean> implements AutoCloseable {
+    // Long view of a ByteBuffer, indexed by byte offset
+    static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    // Words that store the list of bits, null once closed
+    ByteBuffer buffer;
+    // Number of elements in the list.
+    int size;
+
+    /**
+     * Construct an empty list.
+     */
+    public OffHeapBLP() {
+        this(BLP.MAX_SIZE);
+    }
+
+    /**
+     * Construct an empty list with room for {@code capacity} bits before it has to grow.
+     * @param capacity initial capacity in bits
+     */
+    public OffHeapBLP(int capacity) {
+        if (capacity < 0) throw new IllegalArgumentException();
+        buffer = ByteBuffer.allocateDirect(Math.max(1, BLP.wordCount(capacity)) * Long.BYTES);
+    }
+
+    /**
+     * Adopts {@code buffer} as the words of a list of {@code size} bits.
+     * The buffer must hold at least {@code wordCount(size)} words.
+     */
+    OffHeapBLP(ByteBuffer buffer, int size) {
+        this.buffer = buffer;
+        this.size = size;
+    }
+
+    /**
+     * Collection constructor, as per specification of AbstractList.
+     * A BLP is copied a word at a time.
+     * @param c
+     */
+    public OffHeapBLP(Collection<? extends Boolean> c) {
+        this(c.size());
+        if (c instanceof BLP) {
+            BLP b = (BLP) c;
+            for (int i = 0, n = BLP.wordCount(b.size); i < n; i++)
+                setWord(i, b.words[i]);
+            size = b.size;
+            return;
+        }
+        for (boolean e : c)
+            addBit(e);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the buffer holding the words.
+     * @throws IllegalStateException if the list has been closed
+     */
+    ByteBuffer buffer() {
+        if (buffer == null) throw new IllegalStateException("OffHeapBLP closed");
+        return buffer;
+    }
+
+    long word(int w) {
+        return (long) LONGS.get(buffer, w << 3);
+    }
+
+    void setWord(int w, long word) {
+        LONGS.set(buffer, w << 3, word);
+    }
+
+    /**
+     * Number of words the buffer can hold.
+     */
+    int capacityWords() {
+        return buffer.capacity() >>> 3;
+    }
+
+    /**
+     * Grows the buffer, if necessary, to hold at least {@code bits} bits.
+     * Grows by half of the current capacity, as BLP does, into a new zeroed direct buffer.
+     */
+    void ensureCapacity(int bits) {
+        int needed = BLP.wordCount(bits);
+        int capacity = capacityWords();
+        if (needed <= capacity)
+            return;
+
+        int words = Math.min(Integer.MAX_VALUE / Long.BYTES, Math.max(needed, capacity + (capacity >> 1)));
+        ByteBuffer grown = ByteBuffer.allocateDirect(words * Long.BYTES);
+        ByteBuffer old = buffer.duplicate();
+        old.clear();
+        grown.put(old);
+        grown.clear();
+        buffer = grown;
+    }
+
+    /**
+     * Clears any bits at or beyond {@code size} in the last word in use.
+     */
+    void clearUnused() {
+        if ((size & (BLP.MAX_SIZE - 1)) != 0)
+            setWord(size >>> 6, word(size >>> 6) & (-1L >>> -size));
+    }
+
+    /**
+     * Releases the buffer. The list is empty and unusable afterwards: its
+     * accessors throw IllegalStateException, ahead of any bounds check.
+     * Java 17 has no way to free a direct buffer on demand, so its memory is
+     * returned once the buffer is unreachable, which it is after this call.
+     */
+    @Override
+    public void close() {
+        modCount++;
+        buffer = null;
+        size = 0;
+    }
+
+    public Boolean get(int index) {
+        return getBit(index);
+    }
+
+    /**
+     * Returns the bit at the specified position, without boxing.
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         ({@code index < 0 || index >= size()})
+     */
+    public boolean getBit(int index) {
+        buffer();
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException();
+
+        return (word(index >>> 6) >>> index & 1) != 0;
+    }
+
+    public Boolean set(int index, Boolean element) {
+        return setBit(index, element);
+    }
+
+    /**
+     * Replaces the bit at the specified position, without boxing.
+     * @return the bit previously at the specified position
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         ({@code index < 0 || index >= size()})
+     */
+    public boolean setBit(int index, boolean element) {
+        buffer();
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException();
+        modCount++;
+
+        int w = index >>> 6;
+        long word = word(w);
+        boolean p = (word >>> index & 1) != 0;
+        setWord(w, element ? word | 1L << index : word & ~(1L << index));
+        return p;
+    }
+
+    /**
+     * Inverts the bit at the specified position.
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         ({@code index < 0 || index >= size()})
+     */
+    public void flip(int index) {
+        buffer();
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException();
+        modCount++;
+
+        setWord(index >>> 6, word(index >>> 6) ^ 1L << index);
+    }
+
+    /**
+     * Appends the specified boolean to the end of this list, without boxing.
+     * @param e boolean to be appended to this list
+     */
+    public void addBit(boolean e) {
+        buffer();
+        if (size == Integer.MAX_VALUE) throw new IndexOutOfBoundsException("OffHeapBLP overflow");
+        ensureCapacity(size + 1);
+        modCount++;
+
+        if (e)
+            setWord(size >>> 6, word(size >>> 6) | 1L << size);
+        size++;
+    }
+
+    public void add(int index, Boolean element) {
+        addBit(index, element);
+    }
+
+    /**
+     * Inserts the specified boolean at the specified position in this
+     * list. Shifts the bit currently at that position (if any) and
+     * any subsequent bits to the left (adds one to their indices).
+     *
+     * @param index index at which the specified boolean is to be inserted
+     * @param element boolean to be inserted
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         ({@code index < 0 || index > size()})
+     */
+    public void addBit(int index, boolean element) {
+        buffer();
+        if (index < 0 || index > size) throw new IndexOutOfBoundsException();
+        if (index == size) {
+            addBit(element);
+            return;
+        }
+        if (size == Integer.MAX_VALUE) throw new IndexOutOfBoundsException("OffHeapBLP overflow");
+        ensureCapacity(size + 1);
+        modCount++;
+
+        // Carry the top bit of each word into the next, from the last word down
+        int w = index >>> 6;
+        for (int i = size >>> 6; i > w; i--)
+            setWord(i, word(i) << 1 | word(i - 1) >>> 63);
+
+        long word = word(w);
+        long low = word & ((1L << index) - 1);
+        long high = (word & -(1L << index)) << 1;
+        setWord(w, high | low | (element ? 1L << index : 0));
+        size++;
+    }
+
+    /**
+     * Removes the bit at the specified position in this list.
+     * Shifts any subsequent bits to the left (subtracts one from their
+     * indices).
+     *
+     * @param index the index of the bit to be removed
+     * @return the boolean that was removed from the list
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         ({@code index < 0 || index >= size()})
+     */
+    public Boolean remove(int index) {
+        buffer();
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException();
+        modCount++;
+
+        int w = index >>> 6;
+        long word = word(w);
+        boolean p = (word >>> index & 1) != 0;
+        long low = word & ((1L << index) - 1);
+        long high = (word >>> 1) & -(1L << index);
+        setWord(w, high | low);
+
+        // Borrow the bottom bit of each following word
+        int last = (size - 1) >>> 6;
+        for (int i = w; i < last; i++) {
+            long next = word(i + 1);
+            setWord(i, word(i) | next << 63);
+            setWord(i + 1, next >>> 1);
+        }
+        size--;
+        return p;
+    }
+
+    // Bulk boolean algebra
+    // Each operation is a loop over words, as in BLP. Bits of {@code other} beyond
+    // its size count as 0, and the size of this list never changes.
+
+    /**
+     * Performs a logical AND of this list with {@code other}, in place.
+     */
+    public void and(OffHeapBLP other) {
+        buffer();
+        other.buffer();
+        modCount++;
+        int n = BLP.wordCount(size);
+        int common = Math.min(n, BLP.wordCount(other.size));
+        for (int i = 0; i < common; i++)
+            setWord(i, word(i) & other.word(i));
+        for (int i = common; i < n; i++)
+            setWord(i, 0L);
+    }
+
+    /**
+     * Performs a logical OR of this list with {@code other}, in place.
+     */
+    public void or(OffHeapBLP other) {
+        buffer();
+        other.buffer();
+        modCount++;
+        int common = Math.min(BLP.wordCount(size), BLP.wordCount(other.size));
+        for (int i = 0; i < common; i++)
+            setWord(i, word(i) | other.word(i));
+        clearUnused();
+    }
+
+    /**
+     * Performs a logical XOR of this list with {@code other}, in place.
+     */
+    public void xor(OffHeapBLP other) {
+        buffer();
+        other.buffer();
+        modCount++;
+        int common = Math.min(BLP.wordCount(size), BLP.wordCount(other.size));
+        for (int i = 0; i < common; i++)
+            setWord(i, word(i) ^ other.word(i));
+        clearUnused();
+    }
+
+    /**
+     * Clears every bit of this list that is set in {@code other}, in place.
+     */
+    public void andNot(OffHeapBLP other) {
+        buffer();
+        other.buffer();
+        modCount++;
+        int common = Math.min(BLP.wordCount(size), BLP.wordCount(other.size));
+        for (int i = 0; i < common; i++)
+            setWord(i, word(i) & ~other.word(i));
+    }
+
+    /**
+     * Inverts every bit of this list, in place.
+     */
+    public void not() {
+        buffer();
+        modCount++;
+        for (int i = 0, n = BLP.wordCount(size); i < n; i++)
+            setWord(i, ~word(i));
+        clearUnused();
+    }
+
+    /**
+     * Returns the number of set bits.
+     */
+    public int cardinality() {
+        buffer();
+        int count = 0;
+        for (int i = 0, n = BLP.wordCount(size); i < n; i++)
+            count += Long.bitCount(word(i));
+        return count;
+    }
+
+    /**
+     * Returns the index of the first set bit at or after {@code from}, or -1 if there is none.
+     * @throws IndexOutOfBoundsException if {@code from < 0}
+     */
+    public int nextSetBit(int from) {
+        buffer();
+        if (from < 0) throw new IndexOutOfBoundsException();
+        if (from >= size) return -1;
+
+        int w = from >>> 6;
+        int n = BLP.wordCount(size);
+        long word = word(w) & (-1L << from);
+        while (word == 0) {
+            if (++w == n)
+                return -1;
+            word = word(w);
+        }
+        return w * BLP.MAX_SIZE + Long.numberOfTrailingZeros(word);
+    }
+
+    /**
+     * Returns a heap BLP with the same bits.
+     */
+    public BLP toBLP() {
+        buffer();
+        long[] words = new long[Math.max(1, BLP.wordCount(size))];
+        for (int i = 0, n = BLP.wordCount(size); i < n; i++)
+            words[i] = word(i);
+        return new BLP(words, size);
+    }
+
+    @Override
+    public void clear() {
+        ByteBuffer b = buffer();
+        modCount++;
+        for (int i = 0, n = BLP.wordCount(size); i < n; i++)
+            LONGS.set(b, i << 3, 0L);
+        size = 0;
+    }
+
+    @Override
+    public BooleanIterator iterator() {
+        buffer();
+        return new OffHeapIterator();
+    }
+
+    /**
+     * Reads one word at a time, as BLPIterator does.
+     * Note: Does not check for concurrent modification.
+     */
+    class OffHeapIterator implements BooleanIterator {
+        // tracking current index in list
+        int i;
+        // current word, shifted so that bit 0 is element i
+        long word;
+
+        @Override
+        public boolean hasNext() {
+            return i < size;
+        }
+
+        @Override
+        public boolean nextBoolean() {
+            if (i >= size) throw new NoSuchElementException();
+
+            // Only touch memory again at the next word boundary
+            if ((i & (BLP.MAX_SIZE - 1)) == 0)
+                word = word(i >>> 6);
+            else
+                word >>>= 1;
+            i++;
+            return (word & 1) != 0;
+        }
+    }
+}
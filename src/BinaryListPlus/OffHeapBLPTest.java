@@ -0,0 +1,76 @@
+package BinaryListPlus;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+public class OffHeapBLPTest {
+    @Test
+    public void testAgainstBLP() {
+        Random random = new Random(42);
+        BLP expected = new BLP();
+        try (OffHeapBLP b = new OffHeapBLP()) {
+            for (int i = 0; i < 5000; i++) {
+                boolean e = random.nextBoolean();
+                b.addBit(e);
+                expected.addBit(e);
+            }
+            for (int i = 0; i < 500; i++) {
+                int index = random.nextInt(expected.size() + 1);
+                b.addBit(index, i % 2 == 0);
+                expected.addBit(index, i % 2 == 0);
+
+                index = random.nextInt(expected.size());
+                assertEquals(expected.remove(index), b.remove(index));
+
+                index = random.nextInt(expected.size());
+                assertEquals(expected.setBit(index, true), b.setBit(index, true));
+            }
+            assertEquals(expected, b.toBLP());
+            assertEquals(expected.cardinality(), b.cardinality());
+            assertEquals(expected.nextSetBit(4321), b.nextSetBit(4321));
+            assertTrue(b.equals(expected));
+        }
+    }
+
+    @Test
+    public void testBulkAndClose() {
+        BLP x = new BLP("1100110011");
+        BLP y = new BLP("1010");
+        OffHeapBLP a = new OffHeapBLP(x);
+        OffHeapBLP b = new OffHeapBLP(y);
+
+        a.xor(b);
+        assertEquals(BLP.xor(x, y), a.toBLP());
+        a.and(b);
+        assertEquals(BLP.and(BLP.xor(x, y), y), a.toBLP());
+        a.not();
+        assertEquals(10, a.size());
+        assertEquals(BLP.not(BLP.and(BLP.xor(x, y), y)), a.toBLP());
+
+        a.close();
+        // Not an IndexOutOfBoundsException, though the list is now empty
+        try {
+            a.getBit(0);
+            fail();
+        } catch (IllegalStateException e) {
+        }
+        try {
+            a.get(3);
+            fail();
+        } catch (IllegalStateException e) {
+        }
+        try {
+            a.nextSetBit(0);
+            fail();
+        } catch (IllegalStateException e) {
+        }
+        try {
+            a.addBit(true);
+            fail();
+        } catch (IllegalStateException e) {
+        }
+        b.close();
+    }
+}
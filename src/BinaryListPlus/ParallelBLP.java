@@ -0,0 +1,258 @@
+package BinaryListPlus;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Parallel bulk operations over a BLP, in a ForkJoinPool.
+ * The words are split into tasks of {@code LEAF_WORDS} words, small enough to stay in cache.
+ * Lists under {@code SEQUENTIAL_WORDS} words take the sequential path of BLP,
+ * since splitting would cost more than it saves.
+ * Results match the sequential operations of the same name.
+ * @see BLP#parallel()
+ */
+public class ParallelBLP {
+    // Words per leaf task, 32 KB
+    static final int LEAF_WORDS = 4096;
+    // Lists with fewer words run sequentially, 512 KB
+    static final int SEQUENTIAL_WORDS = 16 * LEAF_WORDS;
+
+    static final int AND = 0;
+    static final int OR = 1;
+    static final int XOR = 2;
+    static final int AND_NOT = 3;
+
+    final BLP list;
+    final ForkJoinPool pool;
+
+    ParallelBLP(BLP list, ForkJoinPool pool) {
+        this.list = list;
+        this.pool = pool;
+    }
+
+    boolean sequential() {
+        return BLP.wordCount(list.size) < SEQUENTIAL_WORDS;
+    }
+
+    /**
+     * Returns the number of set bits.
+     * @see BLP#cardinality()
+     */
+    public int cardinality() {
+        if (sequential())
+            return list.cardinality();
+        return pool.invoke(new Cardinality(list.words, 0, BLP.wordCount(list.size)));
+    }
+
+    /**
+     * Performs a logical AND of the list with {@code other}, in place.
+     * @see BLP#and(BLP)
+     */
+    public void and(BLP other) {
+        combine(AND, other);
+    }
+
+    /**
+     * Performs a logical OR of the list with {@code other}, in place.
+     * @see BLP#or(BLP)
+     */
+    public void or(BLP other) {
+        combine(OR, other);
+    }
+
+    /**
+     * Performs a logical XOR of the list with {@code other}, in place.
+     * @see BLP#xor(BLP)
+     */
+    public void xor(BLP other) {
+        combine(XOR, other);
+    }
+
+    /**
+     * Clears every bit of the list that is set in {@code other}, in place.
+     * @see BLP#andNot(BLP)
+     */
+    public void andNot(BLP other) {
+        combine(AND_NOT, other);
+    }
+
+    void combine(int op, BLP other) {
+        if (sequential()) {
+            switch (op) {
+                case AND: list.and(other); break;
+                case OR: list.or(other); break;
+                case XOR: list.xor(other); break;
+                default: list.andNot(other); break;
+            }
+            return;
+        }
+
+        list.modCount++;
+        int n = BLP.wordCount(list.size);
+        int common = Math.min(n, BLP.wordCount(other.size));
+        pool.invoke(new Combine(op, list.words, other.words, 0, common));
+        if (op == AND)
+            Arrays.fill(list.words, common, n, 0L);
+        list.clearUnused();
+    }
+
+    /**
+     * Returns {@code true} if {@code other} has the same size and bits, as
+     * {@link BLP#equals(Object)} does. Named apart from {@code equals}, which
+     * compares the views themselves.
+     * @see BLP#equals(Object)
+     */
+    public boolean contentEquals(BLP other) {
+        if (list.size != other.size)
+            return false;
+        if (sequential())
+            return list.equals(other);
+        return pool.invoke(new Equals(list.words, other.words, 0, BLP.wordCount(list.size)));
+    }
+
+    /**
+     * Returns the index of the first set bit at or after {@code from}, or -1 if there is none.
+     * @throws IndexOutOfBoundsException if {@code from < 0}
+     * @see BLP#nextSetBit(int)
+     */
+    public int nextSetBit(int from) {
+        if (from < 0) throw new IndexOutOfBoundsException();
+        if (from >= list.size) return -1;
+        int w = from >>> 6;
+        int n = BLP.wordCount(list.size);
+        if (n - w < SEQUENTIAL_WORDS)
+            return list.nextSetBit(from);
+
+        // The first word may hold set bits before from
+        long first = list.words[w] & (-1L << from);
+        if (first != 0)
+            return w * BLP.MAX_SIZE + Long.numberOfTrailingZeros(first);
+        return pool.invoke(new NextSetBit(list.words, w + 1, n));
+    }
+
+    @SuppressWarnings("serial")
+    static class Cardinality extends RecursiveTask<Integer> {
+        final long[] words;
+        final int from, to;
+
+        Cardinality(long[] words, int from, int to) {
+            this.words = words;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (to - from <= LEAF_WORDS) {
+                int count = 0;
+                for (int i = from; i < to; i++)
+                    count += Long.bitCount(words[i]);
+                return count;
+            }
+            int mid = (from + to) >>> 1;
+            Cardinality right = new Cardinality(words, mid, to);
+            right.fork();
+            return new Cardinality(words, from, mid).compute() + right.join();
+        }
+    }
+
+    @SuppressWarnings("serial")
+    static class Combine extends RecursiveAction {
+        final int op;
+        final long[] words, other;
+        final int from, to;
+
+        Combine(int op, long[] words, long[] other, int from, int to) {
+            this.op = op;
+            this.words = words;
+            this.other = other;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_WORDS) {
+                // One loop per operation, so each stays a plain loop over words
+                switch (op) {
+                    case AND:
+                        for (int i = from; i < to; i++) words[i] &= other[i];
+                        break;
+                    case OR:
+                        for (int i = from; i < to; i++) words[i] |= other[i];
+                        break;
+                    case XOR:
+                        for (int i = from; i < to; i++) words[i] ^= other[i];
+                        break;
+                    default:
+                        for (int i = from; i < to; i++) words[i] &= ~other[i];
+                        break;
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Combine(op, words, other, from, mid), new Combine(op, words, other, mid, to));
+        }
+    }
+
+    @SuppressWarnings("serial")
+    static class Equals extends RecursiveTask<Boolean> {
+        final long[] a, b;
+        final int from, to;
+
+        Equals(long[] a, long[] b, int from, int to) {
+            this.a = a;
+            this.b = b;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Boolean compute() {
+            if (to - from <= LEAF_WORDS)
+                return Arrays.equals(a, from, to, b, from, to);
+            int mid = (from + to) >>> 1;
+            Equals right = new Equals(a, b, mid, to);
+            right.fork();
+            if (!new Equals(a, b, from, mid).compute()) {
+                right.cancel(false);
+                return false;
+            }
+            return right.join();
+        }
+    }
+
+    @SuppressWarnings("serial")
+    static class NextSetBit extends RecursiveTask<Integer> {
+        final long[] words;
+        final int from, to;
+
+        NextSetBit(long[] words, int from, int to) {
+            this.words = words;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (to - from <= LEAF_WORDS) {
+                for (int i = from; i < to; i++)
+                    if (words[i] != 0)
+                        return i * BLP.MAX_SIZE + Long.numberOfTrailingZeros(words[i]);
+                return -1;
+            }
+            // The left half wins, so the right half is only needed if the left has no set bit
+            int mid = (from + to) >>> 1;
+            NextSetBit right = new NextSetBit(words, mid, to);
+            right.fork();
+            int left = new NextSetBit(words, from, mid).compute();
+            if (left >= 0) {
+                right.cancel(false);
+                return left;
+            }
+            return right.join();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package BinaryListPlus;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class ParallelBLPTest {
+    static BLP random(int n, long seed) {
+        Random random = new Random(seed);
+        long[] words = new long[BLP.wordCount(n)];
+        for (int i = 0; i < words.length; i++)
+            words[i] = random.nextLong();
+        BLP b = new BLP(words, n);
+        b.clearUnused();
+        return b;
+    }
+
+    @Test
+    public void testMatchesSequential() {
+        int n = 5_000_003;
+        BLP a = random(n, 1);
+        BLP b = random(n - 1000, 2);
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        assertEquals(a.cardinality(), a.parallel(pool).cardinality());
+        for (int op = 0; op < 4; op++) {
+            BLP expected = a.clone();
+            BLP actual = a.clone();
+            switch (op) {
+                case 0: expected.and(b); actual.parallel(pool).and(b); break;
+                case 1: expected.or(b); actual.parallel(pool).or(b); break;
+                case 2: expected.xor(b); actual.parallel(pool).xor(b); break;
+                default: expected.andNot(b); actual.parallel(pool).andNot(b); break;
+            }
+            assertTrue(expected.parallel(pool).contentEquals(actual));
+            assertEquals(expected, actual);
+        }
+
+        BLP c = a.clone();
+        assertTrue(a.parallel().contentEquals(c));
+        c.flip(n - 2);
+        assertFalse(a.parallel().contentEquals(c));
+
+        BLP sparse = new BLP(new long[BLP.wordCount(n)], n);
+        assertEquals(-1, sparse.parallel(pool).nextSetBit(5));
+        sparse.setBit(4_000_000, true);
+        sparse.setBit(4_500_000, true);
+        assertEquals(4_000_000, sparse.parallel(pool).nextSetBit(5));
+        assertEquals(4_500_000, sparse.parallel(pool).nextSetBit(4_000_001));
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,196 @@
+package BinaryListPlus;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.LongPredicate;
+
+/**
+ * Parallel aggregates over a NumberList, in a ForkJoinPool.
+ * The numbers are split into tasks of {@code LEAF_NUMBERS} numbers, each
+ * decoding its own range in chunks as the sequential aggregates do.
+ * Histogram leaves are larger, at least {@code NUMBERS_PER_BUCKET} numbers per bucket,
+ * since each allocates and merges a full set of counts.
+ * Lists under {@code SEQUENTIAL_NUMBERS} numbers take the sequential path of
+ * NumberList, since splitting would cost more than it saves.
+ * Results match the sequential operations of the same name.
+ * @see NumberList#parallel()
+ */
+public class ParallelNumberList {
+    // Numbers per leaf task
+    static final int LEAF_NUMBERS = 1 << 16;
+    // Lists with fewer numbers run sequentially
+    static final int SEQUENTIAL_NUMBERS = 16 * LEAF_NUMBERS;
+    // Numbers per histogram leaf for each bucket, so that allocating and
+    // merging the counts stays small next to the scan
+    static final int NUMBERS_PER_BUCKET = 16;
+
+    static final int SUM = 0;
+    static final int MIN = 1;
+    static final int MAX = 2;
+
+    final NumberList list;
+    final ForkJoinPool pool;
+
+    ParallelNumberList(NumberList list, ForkJoinPool pool) {
+        this.list = list;
+        this.pool = pool;
+    }
+
+    boolean sequential() {
+        return list.size < SEQUENTIAL_NUMBERS;
+    }
+
+    /**
+     * Returns the sum of the numbers, wrapping on overflow.
+     * @see NumberList#sum()
+     */
+    public long sum() {
+        if (sequential())
+            return list.sum();
+        return pool.invoke(new Reduce(SUM, list, 0, list.size));
+    }
+
+    /**
+     * Returns the smallest number, compared unsigned.
+     * @throws NoSuchElementException if the list is empty
+     * @see NumberList#min()
+     */
+    public long min() {
+        if (sequential())
+            return list.min();
+        return pool.invoke(new Reduce(MIN, list, 0, list.size));
+    }
+
+    /**
+     * Returns the largest number, compared unsigned.
+     * @throws NoSuchElementException if the list is empty
+     * @see NumberList#max()
+     */
+    public long max() {
+        if (sequential())
+            return list.max();
+        return pool.invoke(new Reduce(MAX, list, 0, list.size));
+    }
+
+    /**
+     * Returns the number of numbers that match {@code predicate}, which must be safe to call from several threads.
+     * @see NumberList#count(LongPredicate)
+     */
+    public int count(LongPredicate predicate) {
+        if (sequential())
+            return list.count(predicate);
+        return pool.invoke(new Count(predicate, list, 0, list.size));
+    }
+
+    /**
+     * @see NumberList#histogram()
+     */
+    public int[] histogram() {
+        return histogram(Math.min(list.bits, NumberList.HISTOGRAM_BITS));
+    }
+
+    /**
+     * @see NumberList#histogram(int)
+     */
+    public int[] histogram(int bucketBits) {
+        list.checkBuckets(bucketBits);
+        int leaf = Math.max(LEAF_NUMBERS, NUMBERS_PER_BUCKET << bucketBits);
+        if (sequential() || list.size < 2 * leaf)
+            return list.histogram(bucketBits);
+        return pool.invoke(new Histogram(bucketBits, leaf, list, 0, list.size));
+    }
+
+    @SuppressWarnings("serial")
+    static class Reduce extends RecursiveTask<Long> {
+        final int op;
+        final NumberList list;
+        final int from, to;
+
+        Reduce(int op, NumberList list, int from, int to) {
+            this.op = op;
+            this.list = list;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Long compute() {
+            if (to - from <= LEAF_NUMBERS) {
+                switch (op) {
+                    case SUM: return list.sum(from, to);
+                    case MIN: return list.min(from, to);
+                    default: return list.max(from, to);
+                }
+            }
+            int mid = (from + to) >>> 1;
+            Reduce right = new Reduce(op, list, mid, to);
+            right.fork();
+            long a = new Reduce(op, list, from, mid).compute();
+            long b = right.join();
+            switch (op) {
+                case SUM: return a + b;
+                case MIN: return Long.compareUnsigned(a, b) <= 0 ? a : b;
+                default: return Long.compareUnsigned(a, b) >= 0 ? a : b;
+            }
+        }
+    }
+
+    @SuppressWarnings("serial")
+    static class Count extends RecursiveTask<Integer> {
+        final LongPredicate predicate;
+        final NumberList list;
+        final int from, to;
+
+        Count(LongPredicate predicate, NumberList list, int from, int to) {
+            this.predicate = predicate;
+            this.list = list;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (to - from <= LEAF_NUMBERS)
+                return list.count(predicate, from, to);
+            int mid = (from + to) >>> 1;
+            Count right = new Count(predicate, list, mid, to);
+            right.fork();
+            return new Count(predicate, list, from, mid).compute() + right.join();
+        }
+    }
+
+    @SuppressWarnings("serial")
+    static class Histogram extends RecursiveTask<int[]> {
+        final int bucketBits;
+        // Numbers per leaf, at least NUMBERS_PER_BUCKET per bucket
+        final int leaf;
+        final NumberList list;
+        final int from, to;
+
+        Histogram(int bucketBits, int leaf, NumberList list, int from, int to) {
+            this.bucketBits = bucketBits;
+            this.leaf = leaf;
+            this.list = list;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (to - from <= leaf) {
+                int[] counts = new int[1 << bucketBits];
+                list.histogram(counts, bucketBits, from, to);
+                return counts;
+            }
+            int mid = (from + to) >>> 1;
+            Histogram right = new Histogram(bucketBits, leaf, list, mid, to);
+            right.fork();
+            int[] counts = new Histogram(bucketBits, leaf, list, from, mid).compute();
+            int[] other = right.join();
+            for (int i = 0; i < counts.length; i++)
+                counts[i] += other[i];
+            return counts;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package BinaryListPlus;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class ParallelNumberListTest {
+    @Test
+    public void testMatchesSequential() {
+        Random random = new Random(7);
+        int[] src = new int[3_000_001];
+        for (int i = 0; i < src.length; i++)
+            src[i] = random.nextInt() & 0x7FFFFF;
+        NumberList n = new NumberList(23);
+        n.addAll(src);
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        ParallelNumberList p = n.parallel(pool);
+        assertEquals(n.sum(), p.sum());
+        assertEquals(n.min(), p.min());
+        assertEquals(n.max(), p.max());
+        assertEquals(n.count(e -> e < 1000), p.count(e -> e < 1000));
+        assertArrayEquals(n.histogram(), p.histogram());
+        assertArrayEquals(n.histogram(3), p.histogram(3));
+
+        NumberList small = new NumberList(8);
+        small.addLong(200);
+        assertEquals(200, small.parallel().max());
+        pool.shutdown();
+    }
+}
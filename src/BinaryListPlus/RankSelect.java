@@ -0,0 +1,119 @@
+package BinaryListPlus;
+
+/**
+ * Rank/select index over the words of a {@link BLP}, as of one modification.
+ * Set bits are counted per superblock of 4096 bits (absolute) and per block
+ * of 512 bits (relative to its superblock), which is under 4% extra memory.
+ * Every {@code SELECT_SAMPLE}-th set bit also records its superblock, so
+ * select only searches between two samples.
+ */
+class RankSelect {
+    // Words per block and per superblock
+    static final int BLOCK_WORDS = 8;
+    static final int SUPER_WORDS = 64;
+    // Set bits between select samples
+    static final int SELECT_SAMPLE = 8192;
+
+    // Words of the list, as of modCount
+    final long[] words;
+    // Number of words in use
+    final int n;
+    // BLP.modCount this index was built at
+    final int modCount;
+    // Set bits before each superblock
+    final int[] supers;
+    // Set bits before each block, relative to its superblock
+    final short[] blocks;
+    // Superblock holding set bit j * SELECT_SAMPLE
+    final int[] samples;
+    // Total set bits
+    final int cardinality;
+
+    RankSelect(BLP list) {
+        words = list.words;
+        n = BLP.wordCount(list.size);
+        modCount = list.modCount;
+
+        int nSupers = (n + SUPER_WORDS - 1) / SUPER_WORDS;
+        supers = new int[Math.max(1, nSupers)];
+        blocks = new short[(n + BLOCK_WORDS - 1) / BLOCK_WORDS];
+
+        int total = 0;
+        int relative = 0;
+        for (int w = 0; w < n; w++) {
+            if (w % SUPER_WORDS == 0) {
+                supers[w / SUPER_WORDS] = total;
+                relative = 0;
+            }
+            if (w % BLOCK_WORDS == 0)
+                blocks[w / BLOCK_WORDS] = (short) relative;
+
+            int c = Long.bitCount(words[w]);
+            total += c;
+            relative += c;
+        }
+        cardinality = total;
+
+        samples = new int[(total + SELECT_SAMPLE - 1) / SELECT_SAMPLE];
+        for (int s = 0, j = 0; s < nSupers; s++) {
+            int end = s + 1 < nSupers ? supers[s + 1] : total;
+            for (; j < samples.length && (long) j * SELECT_SAMPLE < end; j++)
+                samples[j] = s;
+        }
+    }
+
+    /**
+     * Number of set bits before {@code index}, where {@code 0 <= index <= size}.
+     */
+    int rank(int index) {
+        int w = index >>> 6;
+        if (w >= n)
+            return cardinality;
+
+        int r = supers[w / SUPER_WORDS] + blocks[w / BLOCK_WORDS];
+        for (int j = w - w % BLOCK_WORDS; j < w; j++)
+            r += Long.bitCount(words[j]);
+        if ((index & (BLP.MAX_SIZE - 1)) != 0)
+            r += Long.bitCount(words[w] & ((1L << index) - 1));
+        return r;
+    }
+
+    /**
+     * Index of the set bit with rank {@code k}, or -1 if there are not that many set bits.
+     */
+    int select(int k) {
+        if (k < 0 || k >= cardinality)
+            return -1;
+
+        // Binary search for the last superblock starting at or before k, between samples
+        int sample = k / SELECT_SAMPLE;
+        int lo = samples[sample];
+        int hi = sample + 1 < samples.length ? samples[sample + 1] : supers.length - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (supers[mid] <= k)
+                lo = mid;
+            else
+                hi = mid - 1;
+        }
+        int rem = k - supers[lo];
+
+        // Blocks within the superblock
+        int b = lo * (SUPER_WORDS / BLOCK_WORDS);
+        int bEnd = Math.min(b + SUPER_WORDS / BLOCK_WORDS, blocks.length);
+        while (b + 1 < bEnd && blocks[b + 1] <= rem)
+            b++;
+        rem -= blocks[b];
+
+        // Words within the block
+        int w = b * BLOCK_WORDS;
+        for (int c; rem >= (c = Long.bitCount(words[w])); w++)
+            rem -= c;
+
+        // Bits within the word
+        long word = words[w];
+        for (; rem > 0; rem--)
+            word &= word - 1;
+        return w * BLP.MAX_SIZE + Long.numberOfTrailingZeros(word);
+    }
+}
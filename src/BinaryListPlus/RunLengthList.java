@@ -0,0 +1,355 @@
+package BinaryListPlus;
+import BinaryList.BooleanIterator;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.NoSuchElementException;
+
+/**
+ * A run-length encoded List<Boolean>, for data made of long runs of the same value.
+ * Runs alternate in value, starting with {@code first}, so only their lengths are
+ * kept, as cumulative end positions. The cumulative ends double as the index
+ * for O(log runs) {@link #getBit(int)}, and neighbouring runs of the same value
+ * are always merged, so each run costs 4 bytes however long it is.
+ */
+public class RunLengthList extends AbstractList<Boolean> {
+    // End of each run, exclusive. Run r covers [ends[r - 1], ends[r]).
+    int[] ends;
+    // Number of runs
+    int runs;
+    // Value of the first run; run r has value first ^ (r is odd)
+    boolean first;
+
+    /**
+     * Construct with {@code size} set to 0.
+     */
+    public RunLengthList() {
+        ends = new int[4];
+    }
+
+    /**
+     * Collection constructor, as per specification of AbstractList.
+     * A BLP is read a run at a time with nextSetBit/nextClearBit.
+     * @param c
+     */
+    public RunLengthList(Collection<? extends Boolean> c) {
+        this();
+
+        if (c instanceof BLP) {
+            BLP b = (BLP) c;
+            int i = 0;
+            while (i < b.size()) {
+                boolean v = b.getBit(i);
+                int end = v ? b.nextClearBit(i) : b.nextSetBit(i);
+                appendRun(v, end < 0 ? b.size() - i : end - i);
+                i = end < 0 ? b.size() : end;
+            }
+            return;
+        }
+
+        for (boolean e : c)
+            addBit(e);
+    }
+
+    public int size() {
+        return runs == 0 ? 0 : ends[runs - 1];
+    }
+
+    /**
+     * Returns the number of runs.
+     */
+    public int runCount() {
+        return runs;
+    }
+
+    boolean value(int r) {
+        return first ^ ((r & 1) != 0);
+    }
+
+    int start(int r) {
+        return r == 0 ? 0 : ends[r - 1];
+    }
+
+    /**
+     * Binary search for the run holding {@code index}.
+     */
+    int runAt(int index) {
+        int lo = 0;
+        int hi = runs - 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (ends[mid] > index)
+                hi = mid;
+            else
+                lo = mid + 1;
+        }
+        return lo;
+    }
+
+    /**
+     * Inserts {@code count} uninitialised runs before run {@code r}.
+     */
+    void openRuns(int r, int count) {
+        if (runs + count > ends.length)
+            ends = Arrays.copyOf(ends, Math.max(runs + count, ends.length + (ends.length >> 1)));
+        System.arraycopy(ends, r, ends, r + count, runs - r);
+        runs += count;
+    }
+
+    /**
+     * Removes {@code count} runs starting at run {@code r}.
+     */
+    void closeRuns(int r, int count) {
+        System.arraycopy(ends, r + count, ends, r, runs - r - count);
+        runs -= count;
+    }
+
+    /**
+     * Appends {@code length} copies of {@code v}, merging with the last run if it has the same value.
+     */
+    public void appendRun(boolean v, int length) {
+        if (length < 0) throw new IllegalArgumentException();
+        if (length == 0)
+            return;
+        if ((long) size() + length > Integer.MAX_VALUE) throw new IndexOutOfBoundsException("RunLengthList overflow");
+        modCount++;
+
+        int end = size() + length;
+        if (runs == 0)
+            first = v;
+        if (runs > 0 && value(runs - 1) == v) {
+            ends[runs - 1] = end;
+        } else {
+            openRuns(runs, 1);
+            ends[runs - 1] = end;
+        }
+    }
+
+    /**
+     * Appends the specified boolean to the end of this list, without boxing.
+     * @param e boolean to be appended to this list
+     */
+    public void addBit(boolean e) {
+        appendRun(e, 1);
+    }
+
+    public Boolean get(int index) {
+        return getBit(index);
+    }
+
+    /**
+     * Returns the bit at the specified position, without boxing, in O(log runs).
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         ({@code index < 0 || index >= size()})
+     */
+    public boolean getBit(int index) {
+        if (index < 0 || index >= size()) throw new IndexOutOfBoundsException();
+
+        return value(runAt(index));
+    }
+
+    public Boolean set(int index, Boolean element) {
+        return setBit(index, element);
+    }
+
+    /**
+     * Replaces the bit at the specified position, without boxing.
+     * Splits its run, or merges it into a neighbouring run.
+     * @return the bit previously at the specified position
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         ({@code index < 0 || index >= size()})
+     */
+    public boolean setBit(int index, boolean element) {
+        if (index < 0 || index >= size()) throw new IndexOutOfBoundsException();
+
+        int r = runAt(index);
+        boolean v = value(r);
+        if (v == element)
+            return v;
+
+        int s = start(r);
+        int t = ends[r];
+        boolean hasPrev = r > 0;
+        boolean hasNext = r < runs - 1;
+
+        if (t - s == 1) {
+            // The run disappears, joining its neighbours
+            if (hasPrev && hasNext) {
+                ends[r - 1] = ends[r + 1];
+                closeRuns(r, 2);
+            } else if (hasPrev) {
+                ends[r - 1] = t;
+                closeRuns(r, 1);
+            } else if (hasNext) {
+                closeRuns(r, 1);
+                first = !first;
+            } else {
+                first = !first;
+            }
+        } else if (index == s) {
+            // Joins the previous run
+            if (hasPrev) {
+                ends[r - 1]++;
+            } else {
+                openRuns(0, 1);
+                ends[0] = 1;
+                first = !first;
+            }
+        } else if (index == t - 1) {
+            // Joins the next run
+            ends[r]--;
+            if (!hasNext) {
+                openRuns(runs, 1);
+                ends[runs - 1] = t;
+            }
+        } else {
+            // Splits the run in three
+            openRuns(r, 2);
+            ends[r] = index;
+            ends[r + 1] = index + 1;
+        }
+        return v;
+    }
+
+    /**
+     * Inverts the bit at the specified position.
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         ({@code index < 0 || index >= size()})
+     */
+    public void flip(int index) {
+        setBit(index, !getBit(index));
+    }
+
+    /**
+     * Inserts the specified boolean at the specified position in this
+     * list. Shifts the bit currently at that position (if any) and
+     * any subsequent bits to the left (adds one to their indices).
+     *
+     * @param index index at which the specified boolean is to be inserted
+     * @param element boolean to be inserted
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         ({@code index < 0 || index > size()})
+     */
+    public void add(int index, Boolean element) {
+        if (index < 0 || index > size()) throw new IndexOutOfBoundsException();
+        if (index == size()) {
+            addBit(element);
+            return;
+        }
+        if (size() == Integer.MAX_VALUE) throw new IndexOutOfBoundsException("RunLengthList overflow");
+        modCount++;
+
+        int r = runAt(index);
+        int s = start(r);
+        boolean e = element;
+
+        if (value(r) == e) {
+            // Grows its own run
+        } else if (index == s && r > 0) {
+            // Grows the previous run
+            r--;
+        } else if (index == s) {
+            openRuns(0, 1);
+            ends[0] = 0;
+            first = e;
+        } else {
+            openRuns(r, 2);
+            ends[r] = index;
+            ends[r + 1] = index;
+            r++;
+        }
+        for (int i = r; i < runs; i++)
+            ends[i]++;
+    }
+
+    /**
+     * Removes the bit at the specified position in this list.
+     * Shifts any subsequent bits to the left (subtracts one from their
+     * indices).
+     *
+     * @param index the index of the bit to be removed
+     * @return the boolean that was removed from the list
+     * @throws IndexOutOfBoundsException if the index is out of range
+     *         ({@code index < 0 || index >= size()})
+     */
+    public Boolean remove(int index) {
+        if (index < 0 || index >= size()) throw new IndexOutOfBoundsException();
+        modCount++;
+
+        int r = runAt(index);
+        boolean v = value(r);
+        for (int i = r; i < runs; i++)
+            ends[i]--;
+
+        if (ends[r] == start(r)) {
+            // The run is empty, so its neighbours join
+            if (r > 0 && r < runs - 1) {
+                closeRuns(r - 1, 2);
+            } else if (r > 0) {
+                closeRuns(r, 1);
+            } else {
+                closeRuns(r, 1);
+                first = !first;
+            }
+        }
+        return v;
+    }
+
+    /**
+     * Returns the number of set bits, counted from the runs.
+     */
+    public int cardinality() {
+        int count = 0;
+        for (int r = first ? 0 : 1; r < runs; r += 2)
+            count += ends[r] - start(r);
+        return count;
+    }
+
+    /**
+     * Returns a flat BLP with the same bits, filling each set run as a range.
+     */
+    public BLP toBLP() {
+        BLP b = new BLP(new long[Math.max(1, BLP.wordCount(size()))], size());
+        for (int r = first ? 0 : 1; r < runs; r += 2)
+            b.set(start(r), ends[r], true);
+        return b;
+    }
+
+    @Override
+    public void clear() {
+        modCount++;
+        runs = 0;
+    }
+
+    @Override
+    public BooleanIterator iterator() {
+        return new RunIterator();
+    }
+
+    /**
+     * Walks one run at a time.
+     * Note: Does not check for concurrent modification.
+     */
+    class RunIterator implements BooleanIterator {
+        // tracking current index in list
+        int i;
+        // current run
+        int r;
+
+        @Override
+        public boolean hasNext() {
+            return i < size();
+        }
+
+        @Override
+        public boolean nextBoolean() {
+            if (i >= size()) throw new NoSuchElementException();
+
+            if (i == ends[r])
+                r++;
+            i++;
+            return value(r);
+        }
+    }
+}
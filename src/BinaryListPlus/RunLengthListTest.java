@@ -0,0 +1,78 @@
+package BinaryListPlus;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class RunLengthListTest {
+    @Test
+    public void testRuns() {
+        BLP flat = new BLP();
+        for (int i = 0; i < 10_000; i++)
+            flat.addBit((i / 1000) % 2 == 1);
+
+        RunLengthList r = new RunLengthList(flat);
+        assertEquals(10, r.runCount());
+        assertEquals(flat, r);
+        assertEquals(5000, r.cardinality());
+        assertEquals(flat, r.toBLP());
+
+        // Split a run in three, then merge it back
+        assertFalse(r.setBit(500, true));
+        assertEquals(12, r.runCount());
+        assertTrue(r.getBit(500));
+        r.flip(500);
+        assertEquals(10, r.runCount());
+
+        // Join the neighbouring run at either end
+        r.setBit(999, true);
+        r.setBit(2000, true);
+        assertEquals(10, r.runCount());
+        assertEquals(5002, r.cardinality());
+    }
+
+    @Test
+    public void testRandomEdits() {
+        Random random = new Random(42);
+        RunLengthList r = new RunLengthList();
+        List<Boolean> expected = new ArrayList<>();
+
+        for (int i = 0; i < 2000; i++) {
+            boolean e = random.nextInt(8) == 0;
+            r.add(e);
+            expected.add(e);
+        }
+        for (int i = 0; i < 20_000; i++) {
+            int op = random.nextInt(3);
+            if (op == 0) {
+                int index = random.nextInt(expected.size() + 1);
+                boolean e = random.nextBoolean();
+                r.add(index, e);
+                expected.add(index, e);
+            } else if (op == 1 && !expected.isEmpty()) {
+                int index = random.nextInt(expected.size());
+                assertEquals(expected.remove(index), r.remove(index));
+            } else if (!expected.isEmpty()) {
+                int index = random.nextInt(expected.size());
+                boolean e = random.nextBoolean();
+                assertEquals(expected.set(index, e), r.set(index, e));
+            }
+        }
+        assertEquals(expected, r);
+
+        // Neighbouring runs are always merged
+        int runs = 0;
+        for (int i = 0; i < expected.size(); i++)
+            if (i == 0 || expected.get(i) != expected.get(i - 1))
+                runs++;
+        assertEquals(runs, r.runCount());
+        assertEquals(expected.stream().filter(b -> b).count(), r.cardinality());
+
+        while (!expected.isEmpty())
+            assertEquals(expected.remove(0), r.remove(0));
+        assertEquals(0, r.runCount());
+    }
+}